@@ -5,12 +5,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Slf4j
@@ -19,11 +21,12 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory serverRequestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> serverRequestFactory)
                         .build()
         );
     }
@@ -41,25 +44,44 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
+    public ResponseEntity<Object> changeStatuses(BookingDecisionDto decision, long userId) {
+        return patch("/bulk", userId, decision);
+    }
+
     public ResponseEntity<Object> getById(long bookingId, long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getByUserIdAndStateByBooker(long userId, String state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getStatsByBooker(long userId) {
+        return get("/stats", userId);
     }
 
-    public ResponseEntity<Object> getByUserIdAndStateByOwner(long userId, String state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
+    public ResponseEntity<Object> getStatsByOwner(long userId) {
+        return get("/owner/stats", userId);
+    }
+
+    public ResponseEntity<Object> getByUserIdAndStateByBooker(long userId, String state, int from, int size,
+                                                              String cursor) {
+        return getByUserIdAndState("", userId, state, from, size, cursor);
+    }
+
+    public ResponseEntity<Object> getByUserIdAndStateByOwner(long userId, String state, int from, int size,
+                                                             String cursor) {
+        return getByUserIdAndState("/owner", userId, state, from, size, cursor);
+    }
+
+    private ResponseEntity<Object> getByUserIdAndState(String path, long userId, String state, int from, int size,
+                                                       String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state,
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        String query = "?state={state}&from={from}&size={size}";
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+            query += "&cursor={cursor}";
+        }
+        return get(path + query, userId, parameters);
     }
 }
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.validation.Create;
 
@@ -37,6 +38,15 @@ public class BookingController {
         return answer;
     }
 
+    @PatchMapping("/bulk")
+    public ResponseEntity<Object> changeStatuses(@RequestBody @Validated(Create.class) BookingDecisionDto decision,
+                                                 @RequestHeader(HEADER) long userId) {
+        log.debug("+BookingController - changeStatuses: decision = {}, userId = {}", decision, userId);
+        ResponseEntity<Object> answer = bookingClient.changeStatuses(decision, userId);
+        log.debug("-BookingController - changeStatuses: answer = {}", answer);
+        return answer;
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> changeStatus(@PathVariable long bookingId, @RequestParam Boolean approved,
                                    @RequestHeader(HEADER) long userId) {
@@ -47,6 +57,22 @@ public class BookingController {
         return answer;
     }
 
+    @GetMapping("/stats")
+    public ResponseEntity<Object> getStatsByBooker(@RequestHeader(HEADER) long userId) {
+        log.debug("+BookingController - getStatsByBooker: userId = {}", userId);
+        ResponseEntity<Object> answer = bookingClient.getStatsByBooker(userId);
+        log.debug("-BookingController - getStatsByBooker: answer = {}", answer);
+        return answer;
+    }
+
+    @GetMapping("/owner/stats")
+    public ResponseEntity<Object> getStatsByOwner(@RequestHeader(HEADER) long userId) {
+        log.debug("+BookingController - getStatsByOwner: userId = {}", userId);
+        ResponseEntity<Object> answer = bookingClient.getStatsByOwner(userId);
+        log.debug("-BookingController - getStatsByOwner: answer = {}", answer);
+        return answer;
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getById(@PathVariable long bookingId, @RequestHeader(HEADER) long userId) {
         log.debug("+BookingController - getById: bookingId = {}, userId = {}", bookingId, userId);
@@ -60,9 +86,10 @@ public class BookingController {
                                         @RequestHeader(HEADER) long userId,
                                         @RequestParam(defaultValue = "ALL") String state,
                                         @RequestParam(name = "from", defaultValue = "0") @Min(0) int from,
-                                        @RequestParam(name = "size", defaultValue = "10") @Min(1) int size) {
+                                        @RequestParam(name = "size", defaultValue = "10") @Min(1) int size,
+                                        @RequestParam(name = "cursor", required = false) String cursor) {
         log.info("+BookingController - getByUserIdAndState: userId = {}, state = {}", userId, state);
-        ResponseEntity<Object>  answer = bookingClient.getByUserIdAndStateByBooker(userId, state, from, size);
+        ResponseEntity<Object>  answer = bookingClient.getByUserIdAndStateByBooker(userId, state, from, size, cursor);
 
         log.info("+BookingController - getByUserIdAndState: answer = {}", answer);
         return answer;
@@ -72,9 +99,10 @@ public class BookingController {
     public ResponseEntity<Object> getByUserIdAndStateByOwner(@RequestHeader(HEADER) long userId,
                                         @RequestParam(defaultValue = "ALL") String state,
                                         @RequestParam(name = "from", defaultValue = "0") @Min(0) int from,
-                                        @RequestParam(name = "size", defaultValue = "10") @Min(1) int size) {
+                                        @RequestParam(name = "size", defaultValue = "10") @Min(1) int size,
+                                        @RequestParam(name = "cursor", required = false) String cursor) {
         log.debug("+BookingController - getByOwnerId: userId = {}, state = {}", userId, state);
-        ResponseEntity<Object>  answer = bookingClient.getByUserIdAndStateByOwner(userId, state, from, size);
+        ResponseEntity<Object>  answer = bookingClient.getByUserIdAndStateByOwner(userId, state, from, size, cursor);
         log.debug("+BookingController - getByOwnerId: answer = {}", answer);
         return answer;
     }
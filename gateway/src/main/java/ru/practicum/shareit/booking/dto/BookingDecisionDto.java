@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+import ru.practicum.shareit.validation.Create;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+public class BookingDecisionDto {
+    private static final int MAX_BOOKINGS = 500;
+
+    @NotEmpty(groups = Create.class)
+    @Size(groups = Create.class, max = MAX_BOOKINGS)
+    private List<@NotNull(groups = Create.class) Long> bookingIds;
+
+    @NotNull(groups = Create.class)
+    private Boolean approved;
+}
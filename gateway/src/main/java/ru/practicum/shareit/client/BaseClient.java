@@ -1,18 +1,39 @@
 package ru.practicum.shareit.client;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+/**
+ * Forwards requests to the server and hands its responses back untouched: status, end-to-end headers and the
+ * body stream, errors included. Bodies are never parsed, the gateway copies the bytes to its own response.
+ */
 public class BaseClient {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    // RFC 7230 section 6.1: these describe one connection and must not be forwarded
+    private static final Set<String> HOP_BY_HOP_HEADERS = caseInsensitive(List.of(HttpHeaders.CONNECTION,
+            "Keep-Alive", HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION, HttpHeaders.TE,
+            HttpHeaders.TRAILER, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.UPGRADE));
+
     protected final RestTemplate rest;
 
     public BaseClient(RestTemplate rest) {
@@ -43,6 +64,33 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
+    protected ResponseEntity<Object> postStream(String path, long userId, InputStream body, MediaType contentType) {
+        HttpHeaders headers = defaultHeaders(userId);
+        headers.setContentType(contentType);
+        return sendRequest(HttpMethod.POST, path, null, new HttpEntity<>(new InputStreamResource(body), headers));
+    }
+
+    /**
+     * Like {@link #get(String)} but the body is flushed after every read, for responses the server streams.
+     */
+    protected ResponseEntity<StreamingResponseBody> getStream(String path, MediaType accept) {
+        HttpHeaders headers = defaultHeaders(null);
+        headers.setAccept(List.of(accept));
+        ClientHttpResponse response = open(HttpMethod.GET, path, null, new HttpEntity<>(headers));
+        try {
+            return ResponseEntity.status(response.getRawStatusCode())
+                    .headers(endToEndHeaders(response.getHeaders()))
+                    .body(out -> {
+                        try (response; InputStream in = response.getBody()) {
+                            copy(in, out);
+                        }
+                    });
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("I/O error on GET " + path + ": " + e.getMessage(), e);
+        }
+    }
+
     protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
@@ -80,19 +128,77 @@ public class BaseClient {
     }
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return sendRequest(method, path, parameters, new HttpEntity<>(body, defaultHeaders(userId)));
+    }
+
+    /**
+     * The body is the open server response; Spring MVC copies it to the client and closes it, which also
+     * releases the connection.
+     */
+    private <T> ResponseEntity<Object> sendRequest(HttpMethod method, String path,
+                                                   @Nullable Map<String, Object> parameters,
+                                                   HttpEntity<T> requestEntity) {
+        ClientHttpResponse response = open(method, path, parameters, requestEntity);
+        try {
+            InputStream body = new FilterInputStream(response.getBody()) {
+                @Override
+                public void close() {
+                    response.close();
+                }
+            };
+            return ResponseEntity.status(response.getRawStatusCode())
+                    .headers(endToEndHeaders(response.getHeaders()))
+                    .body(new InputStreamResource(body));
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("I/O error on " + method + " " + path + ": " + e.getMessage(), e);
+        }
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    /**
+     * Sends the request through the RestTemplate's request factory and message converters but, unlike
+     * {@link RestTemplate#exchange}, neither reads the response nor turns error statuses into exceptions.
+     */
+    private <T> ClientHttpResponse open(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                        HttpEntity<T> requestEntity) {
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            rest.httpEntityCallback(requestEntity).doWithRequest(request);
+            return request.execute();
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    private static HttpHeaders endToEndHeaders(HttpHeaders headers) {
+        Set<String> excluded = caseInsensitive(HOP_BY_HOP_HEADERS);
+        headers.getConnection().forEach(excluded::add);
+        HttpHeaders forwarded = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!excluded.contains(name)) {
+                forwarded.addAll(name, values);
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        });
+        return forwarded;
+    }
+
+    private static Set<String> caseInsensitive(Iterable<String> names) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        names.forEach(set::add);
+        return set;
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+            out.flush();
         }
-        return prepareGatewayResponse(shareitServerResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -104,18 +210,4 @@ public class BaseClient {
         }
         return headers;
     }
-
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-
-        return responseBuilder.build();
-    }
 }
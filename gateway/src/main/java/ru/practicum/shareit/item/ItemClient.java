@@ -3,24 +3,30 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Map;
+
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .requestFactory(() -> serverRequestFactory)
                         .build()
         );
     }
@@ -29,6 +35,10 @@ public class ItemClient extends BaseClient {
         return post("", ownerId, itemDto);
     }
 
+    public ResponseEntity<Object> addItems(InputStream items, long ownerId) {
+        return postStream("/bulk", ownerId, items, MediaType.APPLICATION_NDJSON);
+    }
+
     public ResponseEntity<Object> getAllItemsByOwnerId(long ownerId) {
         return get("", ownerId);
     }
@@ -41,8 +51,30 @@ public class ItemClient extends BaseClient {
         return get("/" + itemId, ownerId);
     }
 
-    public ResponseEntity<Object> searchItems(String searchText) {
-        return get("/search?text=" + searchText);
+    public ResponseEntity<Object> searchItems(String searchText, boolean fuzzy, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "text", searchText,
+                "fuzzy", fuzzy,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&fuzzy={fuzzy}&from={from}&size={size}", null, parameters);
+    }
+
+    public ResponseEntity<Object> suggestItemNames(String prefix, int size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/suggest?prefix={prefix}&size={size}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
     }
 
     public ResponseEntity<Object> addComment(CommentDto comment, long ownerId, long itemId) {
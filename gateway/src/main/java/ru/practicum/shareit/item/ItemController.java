@@ -2,6 +2,9 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -18,6 +21,11 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.validation.Create;
 import ru.practicum.shareit.validation.Update;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+
 @Slf4j
 @Validated
 @Controller
@@ -35,6 +43,14 @@ public class ItemController {
         return item;
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Object> addItems(InputStream items, @RequestHeader(HEADER) long ownerId) {
+        log.debug("+ItemController - addItems: ownerId = {}", ownerId);
+        ResponseEntity<Object> results = itemClient.addItems(items, ownerId);
+        log.debug("-ItemController - addItems: {}", results.getStatusCode());
+        return results;
+    }
+
     @GetMapping
     public ResponseEntity<Object> getAllItemsByOwnerId(@RequestHeader(HEADER) long ownerId) {
         log.debug("+ItemController - getAllItemsByOwnerId: ownerId = " + ownerId);
@@ -61,13 +77,38 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam("text") String searchText) {
+    public ResponseEntity<Object> searchItems(@RequestParam("text") String searchText,
+                                              @RequestParam(name = "fuzzy", defaultValue = "false") boolean fuzzy,
+                                              @RequestParam(name = "from", defaultValue = "0") @Min(0) int from,
+                                              @RequestParam(name = "size", defaultValue = "10") @Min(1) int size) {
         log.debug("+ItemController - searchItems: searchText = " + searchText);
-        ResponseEntity<Object> items = itemClient.searchItems(searchText);
+        ResponseEntity<Object> items = itemClient.searchItems(searchText, fuzzy, from, size);
         log.debug("-ItemController - searchItems: {}", items);
         return items;
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItemNames(@RequestParam("prefix") String prefix,
+                                                   @RequestParam(name = "size", defaultValue = "10")
+                                                   @Min(1) @Max(20) int size) {
+        log.debug("+ItemController - suggestItemNames: prefix = {}, size = {}", prefix, size);
+        ResponseEntity<Object> names = itemClient.suggestItemNames(prefix, size);
+        log.debug("-ItemController - suggestItemNames: {}", names);
+        return names;
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable long itemId,
+                                                  @RequestParam("from") @DateTimeFormat(iso = ISO.DATE_TIME)
+                                                  LocalDateTime from,
+                                                  @RequestParam("to") @DateTimeFormat(iso = ISO.DATE_TIME)
+                                                  LocalDateTime to) {
+        log.debug("+ItemController - getAvailability: itemId = {}, from = {}, to = {}", itemId, from, to);
+        ResponseEntity<Object> slots = itemClient.getAvailability(itemId, from, to);
+        log.debug("-ItemController - getAvailability: {}", slots);
+        return slots;
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> addComment(@Validated(Create.class) @RequestBody CommentDto comment, @PathVariable long itemId,
                               @RequestHeader(HEADER) long ownerId) {
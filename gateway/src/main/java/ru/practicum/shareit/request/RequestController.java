@@ -47,13 +47,22 @@ public class RequestController {
     @Validated
     ResponseEntity<Object> getAllRequest(@RequestParam(name = "from", defaultValue = "0") @Min(0) int from,
                                     @RequestParam(name = "size", defaultValue = "10") @Min(1) int size,
+                                    @RequestParam(name = "cursor", required = false) String cursor,
                                     @RequestHeader(HEADER) long userId) {
-        log.info("+requestController - getAllRequest: from = {}, size = {}", from, size);
-        ResponseEntity<Object> answer = requestClient.getAllRequest(from, size, userId);
+        log.info("+requestController - getAllRequest: from = {}, size = {}, cursor = {}", from, size, cursor);
+        ResponseEntity<Object> answer = requestClient.getAllRequest(from, size, cursor, userId);
         log.info("-requestController - getAllRequest: {}", answer);
         return answer;
     }
 
+    @GetMapping("/{requestId}/suggestions")
+    ResponseEntity<Object> getSuggestions(@PathVariable long requestId, @RequestHeader(HEADER) long userId) {
+        log.info("+requestController - getSuggestions: requestId = {}", requestId);
+        ResponseEntity<Object> answer = requestClient.getSuggestions(requestId, userId);
+        log.info("-requestController - getSuggestions: {}", answer);
+        return answer;
+    }
+
     @GetMapping("/{requestId}")
     ResponseEntity<Object> getRequestById(@PathVariable long requestId, @RequestHeader(HEADER) long userId) {
         log.info("+requestController - getRequestById: requestId = {}", requestId);
@@ -2,6 +2,7 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -12,10 +13,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.validation.Create;
 import ru.practicum.shareit.validation.Update;
 
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
 @Slf4j
 @Controller
 @RequestMapping(path = "/users")
@@ -25,13 +31,21 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
-        log.debug("+UserController - getAllUsers");
-        ResponseEntity<Object> users =  userClient.getAllUsers();
-        log.debug("-UserController - getAllUsers: {}", users);
+    public ResponseEntity<Object> getUsers(@RequestParam(name = "size", defaultValue = "100")
+                                           @Min(1) @Max(1000) int size,
+                                           @RequestParam(name = "cursor", required = false) String cursor) {
+        log.debug("+UserController - getUsers: size = {}, cursor = {}", size, cursor);
+        ResponseEntity<Object> users = userClient.getUsers(size, cursor);
+        log.debug("-UserController - getUsers: {}", users);
         return users;
     }
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        log.debug("+UserController - streamUsers");
+        return userClient.streamUsers();
+    }
+
     @GetMapping("/{userId}")
     public ResponseEntity<Object> getUserById(@PathVariable int userId) {
         log.debug("+UserController - getUserById: userId = {}", userId);
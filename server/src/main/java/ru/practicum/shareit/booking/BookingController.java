@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,8 +12,12 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.dto.BulkBookingResultDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
 
@@ -33,6 +38,15 @@ public class BookingController {
         return answer;
     }
 
+    @PatchMapping("/bulk")
+    public List<BulkBookingResultDto> changeStatuses(@RequestBody BookingDecisionDto decision,
+                                                     @RequestHeader(HEADER) long userId) {
+        log.debug("+BookingController - changeStatuses: decision = {}, userId = {}", decision, userId);
+        List<BulkBookingResultDto> answer = bookingService.changeStatuses(decision, userId);
+        log.debug("-BookingController - changeStatuses: answer = {}", answer);
+        return answer;
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto changeStatus(@PathVariable long bookingId, @RequestParam Boolean approved,
                                    @RequestHeader(HEADER) long userId) {
@@ -43,6 +57,22 @@ public class BookingController {
         return answer;
     }
 
+    @GetMapping("/stats")
+    public BookingStatsDto getStatsByBooker(@RequestHeader(HEADER) long userId) {
+        log.debug("+BookingController - getStatsByBooker: userId = {}", userId);
+        BookingStatsDto answer = bookingService.getStats(userId, BookingRole.BOOKER);
+        log.debug("-BookingController - getStatsByBooker: answer = {}", answer);
+        return answer;
+    }
+
+    @GetMapping("/owner/stats")
+    public BookingStatsDto getStatsByOwner(@RequestHeader(HEADER) long userId) {
+        log.debug("+BookingController - getStatsByOwner: userId = {}", userId);
+        BookingStatsDto answer = bookingService.getStats(userId, BookingRole.OWNER);
+        log.debug("-BookingController - getStatsByOwner: answer = {}", answer);
+        return answer;
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getById(@PathVariable long bookingId, @RequestHeader(HEADER) long userId) {
         log.debug("+BookingController - getById: bookingId = {}, userId = {}", bookingId, userId);
@@ -52,26 +82,36 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getByUserIdAndStateByBooker(
+    public ResponseEntity<List<BookingDto>> getByUserIdAndStateByBooker(
                                         @RequestHeader(HEADER) long userId,
                                         @RequestParam(defaultValue = "ALL") String state,
                                         @RequestParam(name = "from", defaultValue = "0") int from,
-                                        @RequestParam(name = "size", defaultValue = "10") int size) {
+                                        @RequestParam(name = "size", defaultValue = "10") int size,
+                                        @RequestParam(name = "cursor", required = false) String cursor) {
         log.debug("+BookingController - getByUserIdAndState: userId = {}, state = {}", userId, state);
-        List<BookingDto> answer = bookingService.getByUserIdAndStateByBooker(userId, state, from, size);
+        CursorPage<BookingDto> answer = bookingService.getByUserIdAndStateByBooker(userId, state, from, size, cursor);
 
         log.info("+BookingController - getByUserIdAndState: answer = {}", answer);
-        return answer;
+        return toResponse(answer);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getByUserIdAndStateByOwner(@RequestHeader(HEADER) long userId,
+    public ResponseEntity<List<BookingDto>> getByUserIdAndStateByOwner(@RequestHeader(HEADER) long userId,
                                         @RequestParam(defaultValue = "ALL") String state,
                                         @RequestParam(name = "from", defaultValue = "0") int from,
-                                        @RequestParam(name = "size", defaultValue = "10") int size) {
+                                        @RequestParam(name = "size", defaultValue = "10") int size,
+                                        @RequestParam(name = "cursor", required = false) String cursor) {
         log.debug("+BookingController - getByOwnerId: userId = {}, state = {}", userId, state);
-        List<BookingDto> answer = bookingService.getByUserIdAndStateByOwner(userId, state, from, size);
+        CursorPage<BookingDto> answer = bookingService.getByUserIdAndStateByOwner(userId, state, from, size, cursor);
         log.debug("+BookingController - getByOwnerId: answer = {}", answer);
-        return answer;
+        return toResponse(answer);
+    }
+
+    private static ResponseEntity<List<BookingDto>> toResponse(CursorPage<BookingDto> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public enum BookingState {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED;
+
+    public static Optional<BookingState> from(String state) {
+        return Arrays.stream(values())
+                .filter(s -> s.name().equals(state))
+                .findFirst();
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Moves bookings that ended more than the configured age ago from {@code bookings} to {@code bookings_archive},
+ * one short transaction per batch, so the hot table only holds live and recent bookings.
+ */
+@Slf4j
+@Component
+public class BookingArchiver {
+    private static final int BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+
+    private final BookingArchiveRepository bookingArchiveRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration age;
+
+    public BookingArchiver(BookingRepository bookingRepository, BookingArchiveRepository bookingArchiveRepository,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${shareit.booking.archive.age}") Duration age) {
+        this.bookingRepository = bookingRepository;
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.age = age;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.archive.interval-millis}",
+            initialDelayString = "${shareit.booking.archive.interval-millis}")
+    public void archive() {
+        LocalDateTime before = LocalDateTime.now().minus(age);
+        long archived = 0;
+        int moved;
+        do {
+            moved = Objects.requireNonNull(transactionTemplate.execute(status -> moveBatch(before)));
+            archived += moved;
+        } while (moved == BATCH_SIZE);
+        if (archived > 0) {
+            log.info("BookingArchiver - archive: {} bookings ended before {} archived", archived, before);
+        }
+    }
+
+    private int moveBatch(LocalDateTime before) {
+        List<Long> bookingIds = bookingRepository.findIdsByEndBefore(before, PageRequest.of(0, BATCH_SIZE));
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        bookingArchiveRepository.copyFromBookings(bookingIds);
+        bookingRepository.deleteByIdIn(bookingIds);
+        return bookingIds.size();
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BookingDecisionDto {
+    private List<Long> bookingIds;
+
+    private boolean approved;
+}
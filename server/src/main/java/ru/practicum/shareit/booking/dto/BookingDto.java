@@ -2,12 +2,13 @@ package ru.practicum.shareit.booking.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
+
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class BookingDto {
     private long id;
 
@@ -19,13 +20,23 @@ public class BookingDto {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = DATE_PATTERN)
     private LocalDateTime end;
 
-    private Item item;
+    private BookingItemDto item;
 
-    private User booker;
+    private BookerDto booker;
 
     private BookingStatus status;
 
     private long itemId;
 
     private long bookerId;
+
+    public BookingDto(long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                      long itemId, String itemName, long bookerId) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+        this.status = status;
+        this.item = new BookingItemDto(itemId, itemName);
+        this.booker = new BookerDto(bookerId);
+    }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.dto;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.factory.Mappers;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
 
 @Mapper
@@ -10,5 +11,5 @@ public interface BookingMapper {
 
     BookingDto bookingToBookingDto(Booking booking);
 
-    Booking bookingDtoToBooking(BookingDto bookingDto);
+    BookingDto archivedBookingToBookingDto(ArchivedBooking booking);
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+
+@Data
+public class BookingStatsDto {
+    private long all;
+
+    private long waiting;
+
+    private long approved;
+
+    private long rejected;
+}
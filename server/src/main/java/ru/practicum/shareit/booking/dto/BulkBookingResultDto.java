@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.BookingStatus;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkBookingResultDto {
+    private long bookingId;
+
+    private BookingStatus status;
+
+    private String error;
+
+    public static BulkBookingResultDto changed(long bookingId, BookingStatus status) {
+        return new BulkBookingResultDto(bookingId, status, null);
+    }
+
+    public static BulkBookingResultDto rejected(long bookingId, String error) {
+        return new BulkBookingResultDto(bookingId, null, error);
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.booking.expiry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.LastOrNextBooking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+import static ru.practicum.shareit.booking.BookingStatus.WAITING;
+
+/**
+ * WAITING bookings keyed by the moment their start (plus the grace period) passes. Loaded once at startup and then
+ * kept up to date by the booking service, so finding the expired ones never scans the bookings table.
+ */
+@Slf4j
+@Component
+public class BookingExpiryIndex {
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+
+    private final long tickMillis;
+
+    private final Duration grace;
+
+    private final TimerWheel wheel;
+
+    public BookingExpiryIndex(BookingRepository bookingRepository,
+                              @Value("${shareit.booking.expiry.tick-millis}") long tickMillis,
+                              @Value("${shareit.booking.expiry.grace}") Duration grace) {
+        this.bookingRepository = bookingRepository;
+        this.tickMillis = tickMillis;
+        this.grace = grace;
+        this.wheel = new TimerWheel(System.currentTimeMillis() / tickMillis);
+    }
+
+    @PostConstruct
+    public void load() {
+        long lastId = 0;
+        Slice<LastOrNextBooking> bookings;
+        do {
+            bookings = bookingRepository.findByStatusAndIdGreaterThanOrderByIdAsc(WAITING, lastId,
+                    PageRequest.of(0, LOAD_BATCH_SIZE));
+            synchronized (wheel) {
+                for (LastOrNextBooking booking : bookings) {
+                    wheel.schedule(booking.getId(), deadline(booking.getStart()));
+                    lastId = booking.getId();
+                }
+            }
+        } while (bookings.hasNext());
+        log.info("BookingExpiryIndex - load: {} waiting bookings", wheel.size());
+    }
+
+    public void onBookingSaved(Booking booking) {
+        synchronized (wheel) {
+            if (WAITING.equals(booking.getStatus())) {
+                wheel.schedule(booking.getId(), deadline(booking.getStart()));
+            } else {
+                wheel.cancel(booking.getId());
+            }
+        }
+    }
+
+    public List<Long> pollExpired() {
+        synchronized (wheel) {
+            return wheel.advance(System.currentTimeMillis() / tickMillis);
+        }
+    }
+
+    /**
+     * Puts back bookings that could not be rejected, they come out again on the next poll.
+     */
+    public void retry(Collection<Long> bookingIds) {
+        synchronized (wheel) {
+            bookingIds.forEach(id -> wheel.schedule(id, Long.MIN_VALUE));
+        }
+    }
+
+    private long deadline(LocalDateTime start) {
+        long millis = start.plus(grace).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return Math.floorDiv(millis + tickMillis - 1, tickMillis);
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.expiry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingExpiryJob {
+    private static final int BATCH_SIZE = 50;
+
+    private final BookingExpiryIndex bookingExpiryIndex;
+    private final BookingService bookingService;
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiry.tick-millis}")
+    public void rejectExpired() {
+        List<Long> expired = bookingExpiryIndex.pollExpired();
+        if (expired.isEmpty()) {
+            return;
+        }
+        int rejected = 0;
+        for (int from = 0; from < expired.size(); from += BATCH_SIZE) {
+            List<Long> batch = expired.subList(from, Math.min(from + BATCH_SIZE, expired.size()));
+            try {
+                rejected += bookingService.rejectExpired(batch);
+            } catch (RuntimeException e) {
+                log.warn("BookingExpiryJob - rejectExpired: batch of {} failed, retrying on the next tick",
+                        batch.size(), e);
+                bookingExpiryIndex.retry(batch);
+            }
+        }
+        log.info("BookingExpiryJob - rejectExpired: {} of {} expired bookings rejected", rejected, expired.size());
+    }
+}
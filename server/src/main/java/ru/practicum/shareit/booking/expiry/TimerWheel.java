@@ -0,0 +1,152 @@
+package ru.practicum.shareit.booking.expiry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timer wheel keyed by booking id: level l has 64 slots of 64^l ticks each, so scheduling and
+ * cancelling are O(1) and a tick only touches one slot, plus a cascade from the level above every 64 ticks.
+ * Deadlines beyond the top level are parked at its far end and rescheduled when they come down. Ticks before the
+ * next boundary of the lowest non-empty level are skipped. Not thread-safe.
+ */
+class TimerWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 5;
+    private static final long MAX_SPAN = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final List<List<Set<Long>>> wheel = new ArrayList<>();
+
+    private final Map<Long, Long> deadlines = new HashMap<>();
+
+    private final Map<Long, Integer> positions = new HashMap<>();
+
+    private final int[] levelSizes = new int[LEVELS];
+
+    private final Set<Long> overdue = new LinkedHashSet<>();
+
+    private long currentTick;
+
+    TimerWheel(long currentTick) {
+        this.currentTick = currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            List<Set<Long>> levelSlots = new ArrayList<>(SLOTS);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                levelSlots.add(new LinkedHashSet<>());
+            }
+            wheel.add(levelSlots);
+        }
+    }
+
+    int size() {
+        return deadlines.size();
+    }
+
+    void schedule(long id, long deadlineTick) {
+        cancel(id);
+        deadlines.put(id, deadlineTick);
+        if (deadlineTick <= currentTick) {
+            overdue.add(id);
+        } else {
+            place(id, deadlineTick);
+        }
+    }
+
+    void cancel(long id) {
+        if (deadlines.remove(id) == null) {
+            return;
+        }
+        Integer position = positions.remove(id);
+        if (position != null) {
+            wheel.get(position / SLOTS).get(position % SLOTS).remove(id);
+            levelSizes[position / SLOTS]--;
+        } else {
+            overdue.remove(id);
+        }
+    }
+
+    /**
+     * Moves the wheel to {@code tick} and returns the ids whose deadlines have passed.
+     */
+    List<Long> advance(long tick) {
+        List<Long> expired = new ArrayList<>(overdue);
+        overdue.clear();
+        while (currentTick < tick) {
+            currentTick = Math.max(currentTick, Math.min(tick, nextBusyTick()) - 1) + 1;
+            int top = 0;
+            while (top + 1 < LEVELS && (currentTick & ((1L << (SLOT_BITS * (top + 1))) - 1)) == 0) {
+                top++;
+            }
+            for (int level = top; level > 0; level--) {
+                cascade(level);
+            }
+            Set<Long> due = wheel.get(0).get(slotIndex(currentTick, 0));
+            if (due.isEmpty()) {
+                continue;
+            }
+            List<Long> ids = new ArrayList<>(due);
+            due.clear();
+            levelSizes[0] -= ids.size();
+            for (Long id : ids) {
+                positions.remove(id);
+                long deadline = deadlines.get(id);
+                if (deadline > currentTick) {
+                    place(id, deadline);
+                } else {
+                    expired.add(id);
+                }
+            }
+        }
+        expired.forEach(deadlines::remove);
+        return expired;
+    }
+
+    private void cascade(int level) {
+        Set<Long> slot = wheel.get(level).get(slotIndex(currentTick, level));
+        List<Long> ids = new ArrayList<>(slot);
+        slot.clear();
+        levelSizes[level] -= ids.size();
+        ids.forEach(id -> {
+            positions.remove(id);
+            place(id, deadlines.get(id));
+        });
+    }
+
+    /**
+     * The first tick after the current one at which a slot may fall due: the next boundary of the lowest level
+     * holding any ids, as the slots below it are empty until then.
+     */
+    private long nextBusyTick() {
+        for (int level = 0; level < LEVELS; level++) {
+            if (levelSizes[level] > 0) {
+                int bits = SLOT_BITS * level;
+                return ((currentTick >>> bits) + 1) << bits;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Puts the id on the lowest level whose slot for the deadline is still ahead of the current tick.
+     */
+    private void place(long id, long deadlineTick) {
+        long tick = Math.max(currentTick, Math.min(deadlineTick, currentTick + MAX_SPAN));
+        int level = 0;
+        while (level + 1 < LEVELS
+                && (tick >>> (SLOT_BITS * (level + 1))) != (currentTick >>> (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        int index = slotIndex(tick, level);
+        wheel.get(level).get(index).add(id);
+        positions.put(id, level * SLOTS + index);
+        levelSizes[level]++;
+    }
+
+    private static int slotIndex(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Data;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+@Data
+@Entity
+@Table(name = "booking_counters")
+@IdClass(BookingCounterId.class)
+public class BookingCounter {
+    @Id
+    @Column(name = "user_id")
+    private long userId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role")
+    private BookingRole role;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private BookingStatus status;
+
+    @Column(name = "total")
+    private long total;
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import ru.practicum.shareit.booking.BookingStatus;
@@ -18,4 +19,7 @@ public class LastOrNextBooking {
     private long bookerId;
 
     private BookingStatus status;
+
+    @JsonIgnore
+    private long itemId;
 }
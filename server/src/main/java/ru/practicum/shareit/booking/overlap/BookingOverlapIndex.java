@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.overlap;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static ru.practicum.shareit.booking.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.BookingStatus.WAITING;
+
+/**
+ * WAITING and APPROVED bookings of each item that have not ended yet, loaded lazily per item and dropped
+ * once none are left.
+ * Checks and writes for one item run under that item's lock stripe, so two overlapping bookings
+ * can not both pass the check while bookings of unrelated items proceed in parallel.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingOverlapIndex {
+    private static final int STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, IntervalTree> trees = new ConcurrentHashMap<>();
+
+    private final ReentrantLock[] locks = createLocks();
+
+    public <T> T withItemLock(long itemId, Supplier<T> action) {
+        ReentrantLock lock = locks[stripe(itemId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the stripes of all the items in ascending order, so two callers locking several items can not deadlock.
+     */
+    public <T> T withItemLocks(Collection<Long> itemIds, Supplier<T> action) {
+        int[] stripes = itemIds.stream()
+                .mapToInt(BookingOverlapIndex::stripe)
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+        try {
+            return action.get();
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                locks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Must be called under {@link #withItemLock} for the same item.
+     */
+    public void checkFree(long itemId, LocalDateTime start, LocalDateTime end, long bookingId) {
+        Long overlapping = getTree(itemId).findOverlap(start, end, bookingId);
+        if (overlapping != null) {
+            throw new ConflictException("itemId = " + itemId + " is already booked from " + start + " to " + end
+                    + " by bookingId = " + overlapping);
+        }
+    }
+
+    /**
+     * Must be called under {@link #withItemLock} for the same item.
+     */
+    public void onBookingSaved(Booking booking) {
+        long itemId = booking.getItem().getId();
+        IntervalTree tree = trees.get(itemId);
+        if (tree == null) {
+            return;
+        }
+        if (WAITING.equals(booking.getStatus()) || APPROVED.equals(booking.getStatus())) {
+            tree.put(booking.getId(), booking.getStart(), booking.getEnd());
+        } else {
+            tree.remove(booking.getId());
+        }
+        tree.removeEndedBefore(LocalDateTime.now());
+        if (tree.size() == 0) {
+            trees.remove(itemId);
+        }
+        log.debug("BookingOverlapIndex - onBookingSaved: itemId = {}, {} active bookings", itemId, tree.size());
+    }
+
+    private IntervalTree getTree(long itemId) {
+        return trees.computeIfAbsent(itemId, id -> {
+            IntervalTree tree = new IntervalTree();
+            bookingRepository.findByItemIdInAndStatusInAndEndAfter(List.of(id), List.of(WAITING, APPROVED),
+                            LocalDateTime.now())
+                    .forEach(b -> tree.put(b.getId(), b.getStart(), b.getEnd()));
+            return tree;
+        });
+    }
+
+    private static int stripe(long itemId) {
+        return Math.floorMod(Long.hashCode(itemId), STRIPES);
+    }
+
+    private static ReentrantLock[] createLocks() {
+        ReentrantLock[] locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+}
@@ -0,0 +1,203 @@
+package ru.practicum.shareit.booking.overlap;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AVL tree of half-open booking intervals [start, end) ordered by (start, id); every node keeps the
+ * greatest end of its subtree so that an overlap lookup descends a single path. Not thread-safe.
+ */
+class IntervalTree {
+    private Node root;
+
+    private final Map<Long, Node> nodes = new HashMap<>();
+
+    int size() {
+        return nodes.size();
+    }
+
+    void put(long id, LocalDateTime start, LocalDateTime end) {
+        remove(id);
+        Node node = new Node(id, start, end);
+        nodes.put(id, node);
+        root = insert(root, node);
+    }
+
+    void remove(long id) {
+        Node node = nodes.remove(id);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    /**
+     * Any interval other than {@code excludedId} that intersects [start, end), or null.
+     */
+    Long findOverlap(LocalDateTime start, LocalDateTime end, long excludedId) {
+        Node node = findOverlap(root, start, end, excludedId);
+        return node == null ? null : node.id;
+    }
+
+    /**
+     * Drops the leading intervals that ended at or before {@code now}.
+     */
+    void removeEndedBefore(LocalDateTime now) {
+        Node first = first();
+        while (first != null && !first.end.isAfter(now)) {
+            remove(first.id);
+            first = first();
+        }
+    }
+
+    private Node first() {
+        Node node = root;
+        while (node != null && node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    private static Node findOverlap(Node node, LocalDateTime start, LocalDateTime end, long excludedId) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return null;
+        }
+        Node found = findOverlap(node.left, start, end, excludedId);
+        if (found != null) {
+            return found;
+        }
+        if (!node.start.isBefore(end)) {
+            return null;
+        }
+        if (node.end.isAfter(start) && node.id != excludedId) {
+            return node;
+        }
+        return findOverlap(node.right, start, end, excludedId);
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted, node) < 0) {
+            node.left = insert(node.left, inserted);
+        } else {
+            node.right = insert(node.right, inserted);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, Node deleted) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(deleted, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, deleted);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, deleted);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteFirst(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private static Node deleteFirst(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteFirst(node.left);
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.right.maxEnd;
+        }
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int compare(Node a, Node b) {
+        int cmp = a.start.compareTo(b.start);
+        return cmp != 0 ? cmp : Long.compare(a.id, b.id);
+    }
+
+    private static class Node {
+        private final long id;
+
+        private final LocalDateTime start;
+
+        private final LocalDateTime end;
+
+        private LocalDateTime maxEnd;
+
+        private int height = 1;
+
+        private Node left;
+
+        private Node right;
+
+        private Node(long id, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.util.Streamable;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.LastOrNextBooking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@EnableJpaRepositories
+@Transactional
+public interface BookingArchiveRepository extends Repository<ArchivedBooking, Long> {
+    @EntityGraph(attributePaths = "item")
+    Optional<ArchivedBooking> findById(Long bookingId);
+
+    /**
+     * The archived booking of each item that started last before {@code now}, the only one a last booking
+     * can come from.
+     */
+    @Query("select new ru.practicum.shareit.booking.model.LastOrNextBooking(b.id, b.start, b.end, b.booker.id, "
+            + "b.status, b.item.id) from ArchivedBooking b where b.item.id in :itemIds and b.status = :status "
+            + "and b.start = (select max(a.start) from ArchivedBooking a "
+            + "where a.item = b.item and a.status = :status and a.start < :now)")
+    Streamable<LastOrNextBooking> findLatestByItemIdInAndStatus(@Param("itemIds") Collection<Long> itemIds,
+                                                                @Param("status") BookingStatus status,
+                                                                @Param("now") LocalDateTime now);
+
+    boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(Long itemId, Long booker, BookingStatus status,
+                                                           LocalDateTime now);
+
+    @Modifying
+    @Query(value = "insert into bookings_archive (id, start_time, end_time, item, booker, status, version) "
+            + "select id, start_time, end_time, item, booker, status, version from bookings "
+            + "where id in (:bookingIds)", nativeQuery = true)
+    int copyFromBookings(@Param("bookingIds") Collection<Long> bookingIds);
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.util.Streamable;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.model.BookingCounter;
+import ru.practicum.shareit.booking.model.BookingCounterId;
+
+@EnableJpaRepositories
+@Transactional
+public interface BookingCounterRepository extends Repository<BookingCounter, BookingCounterId> {
+    Streamable<BookingCounter> findByUserIdAndRole(long userId, BookingRole role);
+}
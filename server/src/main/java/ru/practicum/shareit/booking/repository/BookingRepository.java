@@ -1,57 +1,73 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.util.Streamable;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.LastOrNextBooking;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @EnableJpaRepositories
 @Transactional
-public interface BookingRepository extends Repository<Booking, Long>, PagingAndSortingRepository<Booking, Long> {
+public interface BookingRepository extends Repository<Booking, Long>, PagingAndSortingRepository<Booking, Long>,
+        BookingRepositoryCustom {
     Booking save(Booking booking);
 
+    @EntityGraph(attributePaths = "item")
     Optional<Booking> findByIdOrderByIdDesc(Long bookingId);
 
-    Page<Booking> findByBookerIdOrderByIdDesc(Long bookerId, Pageable pageable);
-
-    Page<Booking> findByBookerIdAndStatusOrderByIdDesc(Long bookerId, BookingStatus status, Pageable pageable);
-
-    Page<Booking>
-    findByBookerIdAndStartBeforeAndEndAfterOrderByIdAsc(Long bookerId, LocalDateTime nowForStart,
-                                                        LocalDateTime nowForEnd, Pageable pageable);
-
-    Page<Booking> findByBookerIdAndEndBeforeOrderByIdDesc(Long bookerId, LocalDateTime now, Pageable pageable);
-
-    Page<Booking> findByBookerIdAndStartAfterOrderByIdDesc(Long bookerId, LocalDateTime now, Pageable pageable);
-
-    Page<Booking> findByItemOwnerIdOrderByIdDesc(Long bookerId, Pageable pageable);
+    Streamable<LastOrNextBooking> findByItemIdInAndStatusOrderByStartAsc(Collection<Long> itemIds,
+                                                                        BookingStatus status);
 
-    Page<Booking> findByItemOwnerIdAndStatusOrderByIdDesc(Long bookerId, BookingStatus status, Pageable pageable);
+    Streamable<LastOrNextBooking> findByItemIdInAndStatusInAndEndAfter(Collection<Long> itemIds,
+                                                                      Collection<BookingStatus> statuses,
+                                                                      LocalDateTime now);
 
-    Page<Booking>
-    findByItemOwnerIdAndStartBeforeAndEndAfterOrderByIdAsc(Long bookerId, LocalDateTime nowForStart,
-                                                           LocalDateTime nowForEnd, Pageable pageable);
+    Slice<LastOrNextBooking> findByStatusAndIdGreaterThanOrderByIdAsc(BookingStatus status, long lastId,
+                                                                      Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndEndBeforeOrderByIdDesc(Long bookerId, LocalDateTime now, Pageable pageable);
+    @Query("select b.id from Booking b where b.end < :before order by b.id")
+    List<Long> findIdsByEndBefore(@Param("before") LocalDateTime before, Pageable pageable);
 
-    Page<Booking> findByItemOwnerIdAndStartAfterOrderByIdDesc(Long bookerId, LocalDateTime now, Pageable pageable);
+    @Modifying
+    @Query("delete from Booking b where b.id in :bookingIds")
+    int deleteByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
 
-    Streamable<LastOrNextBooking> findByItemIdOrderByStartAsc(Long itemId);
+    @Query("select b from Booking b join fetch b.item where b.id in :bookingIds")
+    Streamable<Booking> findWithItemByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
 
-    Optional<List<Booking>> findByItemIdAndBookerIdAndStatusAndEndBefore(Long itemId, Long booker,
-                                                                         BookingStatus status, LocalDateTime now);
+    /**
+     * Moves the booking to {@code status} only if it is still in {@code expected}; returns 0 when another
+     * transition got there first.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 "
+            + "where b.id = :bookingId and b.status = :expected")
+    int updateStatus(@Param("bookingId") long bookingId, @Param("expected") BookingStatus expected,
+                     @Param("status") BookingStatus status);
 
-    long countByBookerId(long userId);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "100"))
+    Stream<LastOrNextBooking> findByItemIdAndStatusInAndEndAfterAndStartBeforeOrderByStartAsc(
+            Long itemId, Collection<BookingStatus> statuses, LocalDateTime from, LocalDateTime to);
 
-    long countByItemOwnerId(long userId);
+    boolean existsByItemIdAndBookerIdAndStatusAndEndBefore(Long itemId, Long booker, BookingStatus status,
+                                                           LocalDateTime now);
 }
\ No newline at end of file
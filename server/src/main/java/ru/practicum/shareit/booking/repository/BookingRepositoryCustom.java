@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    /**
+     * Bookings of the user in the given role and state, selected straight into DTOs. Rows continue after
+     * {@code lastId} in the state's order when it is given, otherwise from {@code offset}.
+     */
+    Slice<BookingDto> findByRoleAndState(BookingRole role, BookingState state, long userId, LocalDateTime now,
+                                      Long lastId, long offset, int size);
+
+    /**
+     * Moves every booking that is still in {@code expected} to {@code status} with one JDBC batch of conditional
+     * updates; the returned counts follow {@code bookingIds}, 0 meaning that booking was not in {@code expected}.
+     */
+    int[] updateStatuses(List<Long> bookingIds, BookingStatus expected, BookingStatus status);
+}
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.toList;
+import static ru.practicum.shareit.booking.BookingStatus.REJECTED;
+import static ru.practicum.shareit.booking.BookingStatus.WAITING;
+
+/**
+ * One JPQL text per role and state, built once. Hibernate keys its query plan cache by the text, so each
+ * shape is parsed a single time no matter how the parameters vary. States that can include archived bookings
+ * read {@code bookings_archive} too and merge the two id-ordered results.
+ */
+@RequiredArgsConstructor
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private static final Map<BookingRole, Map<BookingState, String>> QUERIES = buildQueries(Booking.class);
+    private static final Map<BookingRole, Map<BookingState, String>> ARCHIVE_QUERIES =
+            buildQueries(ArchivedBooking.class);
+    // archived bookings ended long ago, so only these states can match any of them
+    private static final Set<BookingState> ARCHIVED_STATES = EnumSet.of(BookingState.ALL, BookingState.PAST,
+            BookingState.REJECTED);
+    private static final String UPDATE_STATUS = "update bookings set status = ?, version = version + 1 "
+            + "where id = ? and status = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<BookingDto> findByRoleAndState(BookingRole role, BookingState state, long userId, LocalDateTime now,
+                                             Long lastId, long offset, int size) {
+        List<BookingDto> bookings;
+        if (ARCHIVED_STATES.contains(state)) {
+            // both tables are read up to offset + size + 1 rows and merged by id, ids being unique across them
+            List<BookingDto> hot = select(QUERIES.get(role).get(state), state, userId, now, lastId, 0, offset + size);
+            List<BookingDto> archived = select(ARCHIVE_QUERIES.get(role).get(state), state, userId, now, lastId, 0,
+                    offset + size);
+            bookings = Stream.concat(hot.stream(), archived.stream())
+                    .sorted(Comparator.comparingLong(BookingDto::getId).reversed())
+                    .skip(offset)
+                    .limit(size + 1)
+                    .collect(toList());
+        } else {
+            bookings = select(QUERIES.get(role).get(state), state, userId, now, lastId, offset, size);
+        }
+        boolean hasNext = bookings.size() > size;
+        if (hasNext) {
+            bookings = bookings.subList(0, size);
+        }
+        return new SliceImpl<>(bookings, new OffsetPageRequest(offset, size), hasNext);
+    }
+
+    private List<BookingDto> select(String jpql, BookingState state, long userId, LocalDateTime now, Long lastId,
+                                    long offset, long size) {
+        TypedQuery<BookingDto> query = entityManager.createQuery(jpql, BookingDto.class)
+                .setParameter("userId", userId)
+                .setParameter("lastId", lastId != null ? lastId : ascending(state) ? 0L : Long.MAX_VALUE)
+                .setFirstResult((int) offset)
+                .setMaxResults((int) size + 1);
+        switch (state) {
+            case CURRENT:
+            case PAST:
+            case FUTURE:
+                query.setParameter("now", now);
+                break;
+            case WAITING:
+                query.setParameter("status", WAITING);
+                break;
+            case REJECTED:
+                query.setParameter("status", REJECTED);
+                break;
+            default:
+                break;
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int[] updateStatuses(List<Long> bookingIds, BookingStatus expected, BookingStatus status) {
+        // the batch bypasses the persistence context, so it is flushed before and cleared after as @Modifying does
+        entityManager.flush();
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_STATUS, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setString(1, status.name());
+                ps.setLong(2, bookingIds.get(i));
+                ps.setString(3, expected.name());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return bookingIds.size();
+            }
+        });
+        entityManager.clear();
+        return counts;
+    }
+
+    private static Map<BookingRole, Map<BookingState, String>> buildQueries(Class<?> entity) {
+        Map<BookingRole, Map<BookingState, String>> queries = new EnumMap<>(BookingRole.class);
+        for (BookingRole role : BookingRole.values()) {
+            Map<BookingState, String> byState = new EnumMap<>(BookingState.class);
+            for (BookingState state : BookingState.values()) {
+                byState.put(state, buildQuery(entity, role, state));
+            }
+            queries.put(role, byState);
+        }
+        return queries;
+    }
+
+    private static String buildQuery(Class<?> entity, BookingRole role, BookingState state) {
+        StringBuilder jpql = new StringBuilder("select new " + BookingDto.class.getName()
+                + "(b.id, b.start, b.end, b.status, i.id, i.name, b.booker.id)"
+                + " from " + entity.getSimpleName() + " b join b.item i"
+                + " where ");
+        jpql.append(role == BookingRole.BOOKER ? "b.booker.id = :userId" : "i.owner.id = :userId");
+        switch (state) {
+            case CURRENT:
+                jpql.append(" and b.start < :now and b.end > :now");
+                break;
+            case PAST:
+                jpql.append(" and b.end < :now");
+                break;
+            case FUTURE:
+                jpql.append(" and b.start > :now");
+                break;
+            case WAITING:
+            case REJECTED:
+                jpql.append(" and b.status = :status");
+                break;
+            default:
+                break;
+        }
+        if (ascending(state)) {
+            jpql.append(" and b.id > :lastId order by b.id asc");
+        } else {
+            jpql.append(" and b.id < :lastId order by b.id desc");
+        }
+        return jpql.toString();
+    }
+
+    private static boolean ascending(BookingState state) {
+        return state == BookingState.CURRENT;
+    }
+}
@@ -1,6 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.dto.BulkBookingResultDto;
+import ru.practicum.shareit.pagination.CursorPage;
 
 import java.util.List;
 
@@ -9,9 +14,18 @@ public interface BookingService {
 
     BookingDto changeStatus(Long bookingId, boolean approved, long userId);
 
+    List<BulkBookingResultDto> changeStatuses(BookingDecisionDto decision, long userId);
+
+    /**
+     * Rejects those of the bookings that are still WAITING, returns how many were rejected.
+     */
+    int rejectExpired(List<Long> bookingIds);
+
     BookingDto getById(long bookingId, long userId);
 
-    List<BookingDto> getByUserIdAndStateByBooker(long userId, String state, int from, int size);
+    CursorPage<BookingDto> getByUserIdAndStateByBooker(long userId, String state, int from, int size, String cursor);
+
+    CursorPage<BookingDto> getByUserIdAndStateByOwner(long userId, String state, int from, int size, String cursor);
 
-    List<BookingDto> getByUserIdAndStateByOwner(long userId, String state, int from, int size);
+    BookingStatsDto getStats(long userId, BookingRole role);
 }
\ No newline at end of file
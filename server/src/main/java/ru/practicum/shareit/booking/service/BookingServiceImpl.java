@@ -2,24 +2,50 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.util.Streamable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.dto.BulkBookingResultDto;
+import ru.practicum.shareit.booking.expiry.BookingExpiryIndex;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.overlap.BookingOverlapIndex;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingCounterRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.stats.BookingCounters;
+import ru.practicum.shareit.booking.timeline.BookingTimelineIndex;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ObjectsDbException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.user.cache.UserPresenceCache;
 import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+
+import static ru.practicum.shareit.booking.BookingRole.BOOKER;
+import static ru.practicum.shareit.booking.BookingRole.OWNER;
 import static ru.practicum.shareit.booking.BookingStatus.APPROVED;
 import static ru.practicum.shareit.booking.BookingStatus.REJECTED;
 import static ru.practicum.shareit.booking.BookingStatus.WAITING;
@@ -31,8 +57,16 @@ public class BookingServiceImpl implements BookingService {
     private static final BookingMapper mapper = BookingMapper.INSTANCE;
 
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingTimelineIndex bookingTimelineIndex;
+    private final BookingOverlapIndex bookingOverlapIndex;
+    private final BookingExpiryIndex bookingExpiryIndex;
+    private final BookingCounterRepository bookingCounterRepository;
+    private final BookingCounters bookingCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final UserPresenceCache userPresenceCache;
 
     @Override
     public BookingDto addBooking(BookingDto bookingDto, long userId) {
@@ -49,13 +83,27 @@ public class BookingServiceImpl implements BookingService {
             throw new ObjectNotFoundException("ownerId = " + item.getOwner().getId() + " is equals to userId");
         }
 
-        bookingDto.setItem(item);
-
-        bookingDto.setBooker(userRepository.findById(userId)
-            .orElseThrow(() -> new ObjectNotFoundException("userId = " + userId + " not found")));
+        Booking newBooking = new Booking();
+        newBooking.setStart(bookingDto.getStart());
+        newBooking.setEnd(bookingDto.getEnd());
+        newBooking.setItem(item);
+        checkUser(userId);
+        newBooking.setBooker(userRepository.getReferenceById(userId));
+        newBooking.setStatus(WAITING);
 
-        bookingDto.setStatus(WAITING);
-        BookingDto answer = mapper.bookingToBookingDto(bookingRepository.save(mapper.bookingDtoToBooking(bookingDto)));
+        Booking booking = bookingOverlapIndex.withItemLock(itemId, () -> {
+            bookingOverlapIndex.checkFree(itemId, newBooking.getStart(), newBooking.getEnd(), 0);
+            Booking saved = transactionTemplate.execute(tx -> {
+                Booking created = bookingRepository.save(newBooking);
+                bookingCounters.onCreated(created);
+                return created;
+            });
+            bookingOverlapIndex.onBookingSaved(saved);
+            return saved;
+        });
+        bookingTimelineIndex.onBookingSaved(booking);
+        bookingExpiryIndex.onBookingSaved(booking);
+        BookingDto answer = mapper.bookingToBookingDto(booking);
         log.debug("-BookingServiceImpl - addBooking: {}", answer);
         return answer;
     }
@@ -68,41 +116,111 @@ public class BookingServiceImpl implements BookingService {
 
         long ownerId = booking.getItem().getOwner().getId();
 
-        if (ownerId == userId) {
-            if (approved) {
-                if (booking.getStatus().equals(APPROVED)) {
-                    throw new BadRequestException("booking: " + booking + " already APPROVED");
-                }
-                booking.setStatus(APPROVED);
-            } else {
-                booking.setStatus(REJECTED);
-            }
-        } else {
+        if (ownerId != userId) {
             throw new ObjectNotFoundException("booking: " + booking + ", ownerId = " + ownerId
                     + " not equals userId = " + userId);
         }
+        if (approved && APPROVED.equals(booking.getStatus())) {
+            throw new BadRequestException("booking: " + booking + " already APPROVED");
+        }
+        if (!WAITING.equals(booking.getStatus())) {
+            throw new ConflictException("booking: " + booking + " is already " + booking.getStatus());
+        }
 
-        BookingDto answer = mapper.bookingToBookingDto(bookingRepository.save(booking));
+        BookingStatus status = approved ? APPROVED : REJECTED;
+        long itemId = booking.getItem().getId();
+        bookingOverlapIndex.withItemLock(itemId, () -> {
+            if (APPROVED.equals(status)) {
+                bookingOverlapIndex.checkFree(itemId, booking.getStart(), booking.getEnd(), bookingId);
+            }
+            // the status is only changed if it is still WAITING, so of two concurrent decisions exactly one wins
+            transactionTemplate.executeWithoutResult(tx -> {
+                if (bookingRepository.updateStatus(bookingId, WAITING, status) == 0) {
+                    throw new ConflictException("bookingId = " + bookingId + " was changed concurrently");
+                }
+                bookingCounters.onStatusChanged(List.of(booking), WAITING, status);
+            });
+            booking.setStatus(status);
+            booking.setVersion(booking.getVersion() + 1);
+            bookingOverlapIndex.onBookingSaved(booking);
+            return booking;
+        });
+        bookingTimelineIndex.onBookingSaved(booking);
+        bookingExpiryIndex.onBookingSaved(booking);
+        BookingDto answer = mapper.bookingToBookingDto(booking);
         log.debug("-BookingServiceImpl - changeStatus: {}", answer);
         return answer;
     }
 
+    @Override
+    public List<BulkBookingResultDto> changeStatuses(BookingDecisionDto decision, long userId) {
+        log.debug("+BookingServiceImpl - changeStatuses: decision = {}, userId = {}", decision, userId);
+        checkUser(userId);
+        BookingStatus status = decision.isApproved() ? APPROVED : REJECTED;
+        List<Long> bookingIds = decision.getBookingIds().stream()
+                .distinct()
+                .collect(toList());
+        Map<Long, Booking> owned = bookingRepository.findWithItemByIdIn(bookingIds)
+                .filter(b -> b.getItem().getOwner().getId() == userId)
+                .stream()
+                .collect(toMap(Booking::getId, identity()));
+
+        Map<Long, BulkBookingResultDto> results = new HashMap<>();
+        List<Booking> waiting = new ArrayList<>();
+        bookingIds.forEach(id -> {
+            Booking booking = owned.get(id);
+            if (booking == null) {
+                results.put(id, BulkBookingResultDto.rejected(id, "bookingId = " + id + " not found"));
+            } else if (!WAITING.equals(booking.getStatus())) {
+                results.put(id, BulkBookingResultDto.rejected(id, "booking is already " + booking.getStatus()));
+            } else {
+                waiting.add(booking);
+            }
+        });
+
+        changeWaiting(waiting, status, results);
+
+        List<BulkBookingResultDto> answer = bookingIds.stream()
+                .map(results::get)
+                .collect(toList());
+        log.debug("-BookingServiceImpl - changeStatuses: {}", answer);
+        return answer;
+    }
+
+    @Override
+    public int rejectExpired(List<Long> bookingIds) {
+        log.debug("+BookingServiceImpl - rejectExpired: bookingIds = {}", bookingIds);
+        List<Booking> waiting = bookingRepository.findWithItemByIdIn(bookingIds)
+                .filter(b -> WAITING.equals(b.getStatus()))
+                .stream()
+                .collect(toList());
+        int rejected = changeWaiting(waiting, REJECTED, new HashMap<>()).size();
+        log.debug("-BookingServiceImpl - rejectExpired: {} rejected", rejected);
+        return rejected;
+    }
+
     @Override
     public BookingDto getById(long bookingId, long userId) {
         log.debug("+BookingServiceImpl - getById: bookingId = {}, userId = {}", bookingId, userId);
         checkUser(userId);
-        BookingDto booking =
-                mapper.bookingToBookingDto(bookingRepository.findByIdOrderByIdDesc(bookingId)
-                .orElseThrow(() -> new ObjectNotFoundException("bookingId = " +
-                        bookingId + " not found")));
-
-        Item item = booking.getItem();
-        long ownerId = item.getOwner().getId();
-        long bookerId = booking.getBooker().getId();
+        Booking booking = bookingRepository.findByIdOrderByIdDesc(bookingId).orElse(null);
+        BookingDto answer;
+        long ownerId;
+        if (booking != null) {
+            ownerId = booking.getItem().getOwner().getId();
+            answer = mapper.bookingToBookingDto(booking);
+        } else {
+            ArchivedBooking archived = bookingArchiveRepository.findById(bookingId)
+                    .orElseThrow(() -> new ObjectNotFoundException("bookingId = " +
+                            bookingId + " not found"));
+            ownerId = archived.getItem().getOwner().getId();
+            answer = mapper.archivedBookingToBookingDto(archived);
+        }
+        long bookerId = answer.getBooker().getId();
 
         if (ownerId == userId || bookerId == userId) {
-            log.debug("-BookingServiceImpl - getById: {}", booking);
-            return booking;
+            log.debug("-BookingServiceImpl - getById: {}", answer);
+            return answer;
         } else {
             throw new ObjectNotFoundException("userId = " + userId + ", ownerId = " + ownerId + ", bookerId = "
                     + bookerId);
@@ -110,119 +228,130 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getByUserIdAndStateByBooker(long userId, String state, int from, int size) {
-        log.info("+BookingServiceImpl - getByUserIdAndStateByBooker: userId = {}, state = {}, from = {}, size = {}", userId, state, from, size);
+    public CursorPage<BookingDto> getByUserIdAndStateByBooker(long userId, String state, int from, int size,
+                                                              String cursor) {
+        log.info("+BookingServiceImpl - getByUserIdAndStateByBooker: userId = {}, state = {}, from = {}, size = {}, "
+                + "cursor = {}", userId, state, from, size, cursor);
         boolean isBooker = true;
-        List<BookingDto> answer = getByUserIdAndState(userId, state, isBooker, from, size);
+        CursorPage<BookingDto> answer = getByUserIdAndState(userId, state, isBooker, from, size, cursor);
         log.info("-BookingServiceImpl - getByUserIdAndStateByBooker: {}", answer);
         return answer;
     }
 
     @Override
-    public List<BookingDto> getByUserIdAndStateByOwner(long userId, String state, int from, int size) {
-        log.info("+BookingServiceImpl - getByUserIdAndStateByOwner: userId = {}, state = {}, from = {}, size = {}", userId, state, from, size);
+    public CursorPage<BookingDto> getByUserIdAndStateByOwner(long userId, String state, int from, int size,
+                                                             String cursor) {
+        log.info("+BookingServiceImpl - getByUserIdAndStateByOwner: userId = {}, state = {}, from = {}, size = {}, "
+                + "cursor = {}", userId, state, from, size, cursor);
 
         boolean isBooker = false;
-        List<BookingDto> answer = getByUserIdAndState(userId, state, isBooker, from, size);
+        CursorPage<BookingDto> answer = getByUserIdAndState(userId, state, isBooker, from, size, cursor);
         log.debug("+BookingServiceImpl - getByUserIdAndStateByOwner: userId = {}, state = {}", userId, state);
         return answer;
     }
 
 
-    private List<BookingDto> getByUserIdAndState(long userId, String state, boolean isBooker, int from, int size) {
-        Streamable<Booking> bookings;
+    @Override
+    public BookingStatsDto getStats(long userId, BookingRole role) {
+        log.debug("+BookingServiceImpl - getStats: userId = {}, role = {}", userId, role);
         checkUser(userId);
-        switch (state) {
-            case "ALL":
-                if (isBooker) {
-                    bookings = bookingRepository
-                            .findByBookerIdOrderByIdDesc(userId, getPage(isBooker, userId, from, size));
-                } else {
-                    bookings = bookingRepository
-                            .findByItemOwnerIdOrderByIdDesc(userId, getPage(isBooker, userId, from, size));
-                }
-                break;
-            case "CURRENT":
-                LocalDateTime now = LocalDateTime.now();
-                if (isBooker) {
-                    bookings = bookingRepository
-                            .findByBookerIdAndStartBeforeAndEndAfterOrderByIdAsc(
-                                    userId, now, now, getPage(isBooker, userId, from, size));
-                } else {
-                    bookings = bookingRepository
-                            .findByItemOwnerIdAndStartBeforeAndEndAfterOrderByIdAsc(
-                                    userId, now, now, getPage(isBooker, userId, from, size));
-                }
-                break;
-            case "PAST":
-                if (isBooker) {
-                    bookings = bookingRepository
-                            .findByBookerIdAndEndBeforeOrderByIdDesc(
-                                    userId, LocalDateTime.now(), getPage(isBooker, userId, from, size));
-                } else {
-                    bookings = bookingRepository
-                            .findByItemOwnerIdAndEndBeforeOrderByIdDesc(
-                                    userId, LocalDateTime.now(), getPage(isBooker, userId, from, size));
-                }
-                break;
-            case "FUTURE":
-                if (isBooker) {
-                    bookings = bookingRepository
-                            .findByBookerIdAndStartAfterOrderByIdDesc(
-                                    userId, LocalDateTime.now(), getPage(isBooker, userId, from, size));
-                } else {
-                    bookings = bookingRepository
-                            .findByItemOwnerIdAndStartAfterOrderByIdDesc(
-                                    userId, LocalDateTime.now(), getPage(isBooker, userId, from, size));
-                }
-                break;
-            case "WAITING":
-                if (isBooker) {
-                    bookings = bookingRepository.findByBookerIdAndStatusOrderByIdDesc(
-                            userId, WAITING, getPage(isBooker, userId, from, size));
-                } else {
-                    bookings = bookingRepository.findByItemOwnerIdAndStatusOrderByIdDesc(
-                            userId, WAITING, getPage(isBooker, userId, from, size));
-                }
-                break;
-            case "REJECTED":
-                if (isBooker) {
-                    bookings = bookingRepository
-                            .findByBookerIdAndStatusOrderByIdDesc(
-                                    userId, REJECTED, getPage(isBooker, userId, from, size));
-                } else {
-                    bookings = bookingRepository
-                            .findByItemOwnerIdAndStatusOrderByIdDesc(
-                                    userId, REJECTED, getPage(isBooker, userId, from, size));
-                }
-                break;
-            default:
-                throw new ObjectsDbException("Unknown state: " + state);
-        }
+        BookingStatsDto stats = new BookingStatsDto();
+        bookingCounterRepository.findByUserIdAndRole(userId, role).forEach(counter -> {
+            stats.setAll(stats.getAll() + counter.getTotal());
+            switch (counter.getStatus()) {
+                case WAITING:
+                    stats.setWaiting(counter.getTotal());
+                    break;
+                case APPROVED:
+                    stats.setApproved(counter.getTotal());
+                    break;
+                case REJECTED:
+                    stats.setRejected(counter.getTotal());
+                    break;
+                default:
+                    break;
+            }
+        });
+        log.debug("-BookingServiceImpl - getStats: {}", stats);
+        return stats;
+    }
 
-        return bookings.stream()
-                .map(mapper::bookingToBookingDto)
-                .collect(toList());
+    private CursorPage<BookingDto> getByUserIdAndState(long userId, String state, boolean isBooker, int from,
+                                                       int size, String cursor) {
+        checkUser(userId);
+        BookingState bookingState = BookingState.from(state)
+                .orElseThrow(() -> new ObjectsDbException("Unknown state: " + state));
+        // a cursor continues right after the last row of the previous page, so the offset only applies without it
+        Long lastId = cursor == null ? null : CursorCodec.decode(cursor);
+        Slice<BookingDto> bookings = bookingRepository.findByRoleAndState(isBooker ? BOOKER : OWNER, bookingState,
+                userId, LocalDateTime.now(), lastId, lastId == null ? from : 0, size);
+
+        List<BookingDto> items = bookings.getContent();
+        String nextCursor = bookings.hasNext() ? CursorCodec.encode(items.get(items.size() - 1).getId()) : null;
+        return new CursorPage<>(items, nextCursor);
     }
 
-    private void checkUser(long userId) {
-        if (Boolean.FALSE.equals(userRepository.existsById(userId))) {
-            throw new ObjectNotFoundException("userId = " + userId + " not found");
+    private List<Booking> changeWaiting(List<Booking> waiting, BookingStatus status,
+                                        Map<Long, BulkBookingResultDto> results) {
+        if (waiting.isEmpty()) {
+            return waiting;
         }
+        Set<Long> itemIds = waiting.stream()
+                .map(b -> b.getItem().getId())
+                .collect(toSet());
+        List<Booking> changed = bookingOverlapIndex.withItemLocks(itemIds, () -> applyStatus(waiting, status, results));
+        changed.forEach(booking -> {
+            bookingTimelineIndex.onBookingSaved(booking);
+            bookingExpiryIndex.onBookingSaved(booking);
+        });
+        return changed;
     }
 
-    private Pageable getPage(boolean isBooker, long userId, int from, int size) {
-        long total;
-        if (isBooker) {
-            total = bookingRepository.countByBookerId(userId);
-        } else {
-            total = bookingRepository.countByItemOwnerId(userId);
+    /**
+     * Must be called under {@link BookingOverlapIndex#withItemLocks} for the items of the bookings.
+     */
+    private List<Booking> applyStatus(List<Booking> waiting, BookingStatus status,
+                                      Map<Long, BulkBookingResultDto> results) {
+        List<Booking> free = new ArrayList<>();
+        waiting.forEach(booking -> {
+            try {
+                if (APPROVED.equals(status)) {
+                    bookingOverlapIndex.checkFree(booking.getItem().getId(), booking.getStart(), booking.getEnd(),
+                            booking.getId());
+                }
+                free.add(booking);
+            } catch (ConflictException e) {
+                results.put(booking.getId(), BulkBookingResultDto.rejected(booking.getId(), e.getMessage()));
+            }
+        });
+        if (free.isEmpty()) {
+            return free;
         }
-        if (total < from + size) {
-            size = (int) total - from;
+
+        List<Booking> changed = new ArrayList<>();
+        List<Booking> concurrent = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(tx -> {
+            int[] counts = bookingRepository.updateStatuses(free.stream().map(Booking::getId).collect(toList()),
+                    WAITING, status);
+            for (int i = 0; i < counts.length; i++) {
+                (counts[i] == 0 ? concurrent : changed).add(free.get(i));
+            }
+            bookingCounters.onStatusChanged(changed, WAITING, status);
+        });
+        concurrent.forEach(booking -> results.put(booking.getId(), BulkBookingResultDto.rejected(booking.getId(),
+                "bookingId = " + booking.getId() + " was changed concurrently")));
+        changed.forEach(booking -> {
+            booking.setStatus(status);
+            booking.setVersion(booking.getVersion() + 1);
+            bookingOverlapIndex.onBookingSaved(booking);
+            results.put(booking.getId(), BulkBookingResultDto.changed(booking.getId(), status));
+        });
+        return changed;
+    }
+
+    private void checkUser(long userId) {
+        if (!userPresenceCache.exists(userId)) {
+            throw new ObjectNotFoundException("userId = " + userId + " not found");
         }
-        return PageRequest.of(from, size);
     }
 }
-
-
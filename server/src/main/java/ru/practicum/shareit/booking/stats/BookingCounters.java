@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.stats;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRole;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCounterId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static ru.practicum.shareit.booking.BookingRole.BOOKER;
+import static ru.practicum.shareit.booking.BookingRole.OWNER;
+
+/**
+ * Writes of the booking_counters read model: one row per (user, role, status), created with the user and changed
+ * in the same transaction as the bookings it counts, so reading the counts never scans the bookings table.
+ * Every method must run inside the caller's transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingCounters {
+    private static final String CREATE = "insert into booking_counters (user_id, role, status, total) "
+            + "values (?, ?, ?, 0)";
+    private static final String ADD = "update booking_counters set total = total + ? "
+            + "where user_id = ? and role = ? and status = ?";
+    private static final String DELETE = "delete from booking_counters where user_id = ?";
+    // rows are always updated in key order, so two transactions touching the same users can not deadlock
+    private static final Comparator<BookingCounterId> KEY_ORDER = Comparator
+            .comparingLong(BookingCounterId::getUserId)
+            .thenComparing(BookingCounterId::getRole)
+            .thenComparing(BookingCounterId::getStatus);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void create(long userId) {
+        List<Object[]> rows = new ArrayList<>();
+        for (BookingRole role : BookingRole.values()) {
+            for (BookingStatus status : BookingStatus.values()) {
+                rows.add(new Object[]{userId, role.name(), status.name()});
+            }
+        }
+        jdbcTemplate.batchUpdate(CREATE, rows);
+    }
+
+    public void delete(long userId) {
+        jdbcTemplate.update(DELETE, userId);
+    }
+
+    public void onCreated(Booking booking) {
+        Map<BookingCounterId, Long> deltas = new TreeMap<>(KEY_ORDER);
+        add(deltas, booking, booking.getStatus(), 1);
+        apply(deltas);
+    }
+
+    public void onStatusChanged(Collection<Booking> bookings, BookingStatus from, BookingStatus to) {
+        Map<BookingCounterId, Long> deltas = new TreeMap<>(KEY_ORDER);
+        bookings.forEach(booking -> {
+            add(deltas, booking, from, -1);
+            add(deltas, booking, to, 1);
+        });
+        apply(deltas);
+    }
+
+    private static void add(Map<BookingCounterId, Long> deltas, Booking booking, BookingStatus status, long delta) {
+        deltas.merge(new BookingCounterId(booking.getBooker().getId(), BOOKER, status), delta, Long::sum);
+        deltas.merge(new BookingCounterId(booking.getItem().getOwner().getId(), OWNER, status), delta, Long::sum);
+    }
+
+    private void apply(Map<BookingCounterId, Long> deltas) {
+        List<Object[]> rows = new ArrayList<>();
+        deltas.forEach((id, delta) -> {
+            if (delta != 0) {
+                rows.add(new Object[]{delta, id.getUserId(), id.getRole().name(), id.getStatus().name()});
+            }
+        });
+        jdbcTemplate.batchUpdate(ADD, rows);
+        log.debug("BookingCounters - apply: {}", deltas);
+    }
+}
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.booking.timeline;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.util.Streamable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.LastOrNextBooking;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+import static ru.practicum.shareit.booking.BookingStatus.APPROVED;
+
+/**
+ * Approved bookings of each item ordered by start, loaded lazily from the database once per item and then
+ * kept up to date by the booking service. Of the archive only the latest booking is loaded: every other
+ * archived booking started before it, so it can be neither the last nor the next one. Timelines of the most
+ * used items are kept, up to the configured number.
+ */
+@Slf4j
+@Component
+public class BookingTimelineIndex {
+    private static final Comparator<LastOrNextBooking> BY_START = Comparator
+            .comparing(LastOrNextBooking::getStart)
+            .thenComparingLong(LastOrNextBooking::getId);
+
+    private final BookingRepository bookingRepository;
+
+    private final BookingArchiveRepository bookingArchiveRepository;
+
+    private final Cache<Long, Timeline> timelines;
+
+    public BookingTimelineIndex(BookingRepository bookingRepository, BookingArchiveRepository bookingArchiveRepository,
+                                @Value("${shareit.cache.booking-timelines.maximum-size}") long maximumSize,
+                                MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        timelines = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, timelines, "bookingTimelines");
+    }
+
+    public LastOrNextBooking getLastBooking(long itemId, LocalDateTime now) {
+        return getTimeline(itemId).lower(probe(now, Long.MIN_VALUE));
+    }
+
+    public LastOrNextBooking getNextBooking(long itemId, LocalDateTime now) {
+        return getTimeline(itemId).higher(probe(now, Long.MAX_VALUE));
+    }
+
+    public void preload(Collection<Long> itemIds) {
+        List<Long> missing = itemIds.stream()
+                .filter(id -> timelines.getIfPresent(id) == null)
+                .distinct()
+                .collect(toList());
+        if (!missing.isEmpty()) {
+            log.debug("+BookingTimelineIndex - preload: itemIds = {}", missing);
+            load(missing);
+        }
+    }
+
+    public void onBookingSaved(Booking booking) {
+        long itemId = booking.getItem().getId();
+        Timeline timeline = timelines.getIfPresent(itemId);
+        if (timeline == null) {
+            return;
+        }
+        LastOrNextBooking entry = new LastOrNextBooking(booking.getId(), booking.getStart(), booking.getEnd(),
+                booking.getBooker().getId(), booking.getStatus(), itemId);
+        synchronized (timeline) {
+            if (!timeline.loaded) {
+                timeline.changedWhileLoading = true;
+                return;
+            }
+            timeline.bookings.remove(entry);
+            if (APPROVED.equals(booking.getStatus())) {
+                timeline.bookings.add(entry);
+            }
+        }
+        log.debug("BookingTimelineIndex - onBookingSaved: itemId = {}, timeline = {}", itemId, timeline.bookings);
+    }
+
+    private NavigableSet<LastOrNextBooking> getTimeline(long itemId) {
+        Timeline timeline = timelines.getIfPresent(itemId);
+        if (timeline != null && timeline.loaded) {
+            return timeline.bookings;
+        }
+        return load(List.of(itemId)).get(itemId);
+    }
+
+    /**
+     * Loads the timelines and caches those no other thread is loading. A timeline whose item got a booking
+     * change while its rows were read is still returned, but not kept.
+     */
+    private Map<Long, NavigableSet<LastOrNextBooking>> load(Collection<Long> itemIds) {
+        Map<Long, Timeline> loading = new HashMap<>();
+        itemIds.forEach(id -> {
+            Timeline timeline = new Timeline();
+            if (timelines.asMap().putIfAbsent(id, timeline) == null) {
+                loading.put(id, timeline);
+            }
+        });
+        Map<Long, NavigableSet<LastOrNextBooking>> loaded = new HashMap<>();
+        try {
+            Map<Long, List<LastOrNextBooking>> bookings = find(itemIds)
+                    .stream()
+                    .collect(groupingBy(LastOrNextBooking::getItemId));
+            itemIds.forEach(id -> {
+                Timeline timeline = loading.getOrDefault(id, new Timeline());
+                synchronized (timeline) {
+                    timeline.bookings.addAll(bookings.getOrDefault(id, List.of()));
+                    timeline.loaded = true;
+                    if (timeline.changedWhileLoading) {
+                        timelines.asMap().remove(id, timeline);
+                    }
+                }
+                loaded.put(id, timeline.bookings);
+            });
+        } finally {
+            loading.forEach((id, timeline) -> {
+                if (!timeline.loaded) {
+                    timelines.asMap().remove(id, timeline);
+                }
+            });
+        }
+        return loaded;
+    }
+
+    private Streamable<LastOrNextBooking> find(Collection<Long> itemIds) {
+        return bookingRepository.findByItemIdInAndStatusOrderByStartAsc(itemIds, APPROVED)
+                .and(bookingArchiveRepository.findLatestByItemIdInAndStatus(itemIds, APPROVED, LocalDateTime.now()));
+    }
+
+    private static LastOrNextBooking probe(LocalDateTime start, long id) {
+        return new LastOrNextBooking(id, start, start, 0, APPROVED, 0);
+    }
+
+    /**
+     * Bookings of one item. It is cached before its rows are read, so that a booking change made meanwhile
+     * is noticed instead of being lost.
+     */
+    private static class Timeline {
+        private final NavigableSet<LastOrNextBooking> bookings = new ConcurrentSkipListSet<>(BY_START);
+
+        private volatile boolean loaded;
+
+        private volatile boolean changedWhileLoading;
+    }
+}
@@ -1,18 +1,30 @@
 package ru.practicum.shareit.comment.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
-import ru.practicum.shareit.item.model.Item;
+import lombok.NoArgsConstructor;
+
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class CommentDto {
     private static final String DATE_PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
 
     long id;
     String text;
-    Item item;
     String authorName;
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = DATE_PATTERN)
     LocalDateTime created;
+    @JsonIgnore
+    long itemId;
+
+    public CommentDto(long id, String text, String authorName, LocalDateTime created, long itemId) {
+        this.id = id;
+        this.text = text;
+        this.authorName = authorName;
+        this.created = created;
+        this.itemId = itemId;
+    }
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.comment.dto;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 import ru.practicum.shareit.comment.model.Comment;
 
@@ -8,7 +9,9 @@ import ru.practicum.shareit.comment.model.Comment;
 public interface CommentMapper {
     CommentMapper INSTANCE = Mappers.getMapper(CommentMapper.class);
 
+    @Mapping(target = "itemId", source = "item.id")
     CommentDto commentToCommentDto(Comment comment);
 
+    @Mapping(target = "item", ignore = true)
     Comment commentDtoToComment(CommentDto commentDto);
 }
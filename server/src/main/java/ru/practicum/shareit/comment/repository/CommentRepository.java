@@ -1,13 +1,20 @@
 package ru.practicum.shareit.comment.repository;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.util.Streamable;
+import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.model.Comment;
 
+import java.util.Collection;
+
 @EnableJpaRepositories
 public interface CommentRepository extends Repository<Comment, Long> {
     Comment save(Comment comment);
 
-    Streamable<Comment> findByItemId(long itemId);
+    @Query("select new ru.practicum.shareit.comment.dto.CommentDto(c.id, c.text, c.authorName, c.created, c.item.id)"
+            + " from Comment c where c.item.id in :itemIds order by c.id")
+    Streamable<CommentDto> findByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
@@ -29,6 +29,15 @@ public class ExceptionShareItHandler {
         );
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseBody handleConflictException(final ConflictException e) {
+        e.printStackTrace();
+        return new ResponseBody(
+                e.getMessage()
+        );
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseBody handleBadRequestException(final BadRequestException  e) {
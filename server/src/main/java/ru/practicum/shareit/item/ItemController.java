@@ -2,6 +2,9 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,9 +15,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.BulkItemResultDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -33,6 +40,14 @@ public class ItemController {
         return item;
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public List<BulkItemResultDto> addItems(InputStream items, @RequestHeader(HEADER) long ownerId) {
+        log.debug("+ItemController - addItems: ownerId = {}", ownerId);
+        List<BulkItemResultDto> results = itemService.addItems(items, ownerId);
+        log.debug("-ItemController - addItems: {}", results);
+        return results;
+    }
+
     @GetMapping
     public List<ItemDto> getAllItemsByOwnerId(@RequestHeader(HEADER) long ownerId) {
         log.debug("+ItemController - getAllItemsByOwnerId: ownerId = {}", ownerId);
@@ -59,13 +74,38 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam("text") String searchText) {
-        log.debug("+ItemController - searchItems: searchText = {}", searchText);
-        List<ItemDto> items = itemService.searchItems(searchText);
+    public List<ItemDto> searchItems(@RequestParam("text") String searchText,
+                                     @RequestParam(name = "fuzzy", defaultValue = "false") boolean fuzzy,
+                                     @RequestParam(name = "from", defaultValue = "0") int from,
+                                     @RequestParam(name = "size", defaultValue = "10") int size) {
+        log.debug("+ItemController - searchItems: searchText = {}, fuzzy = {}, from = {}, size = {}",
+                searchText, fuzzy, from, size);
+        List<ItemDto> items = itemService.searchItems(searchText, fuzzy, from, size);
         log.debug("-ItemController - searchItems: {}", items);
         return items;
     }
 
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestParam("prefix") String prefix,
+                                         @RequestParam(name = "size", defaultValue = "10") int size) {
+        log.debug("+ItemController - suggestItemNames: prefix = {}, size = {}", prefix, size);
+        List<String> names = itemService.suggestItemNames(prefix, size);
+        log.debug("-ItemController - suggestItemNames: {}", names);
+        return names;
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<FreeSlotDto> getAvailability(@PathVariable long itemId,
+                                             @RequestParam("from") @DateTimeFormat(iso = ISO.DATE_TIME)
+                                             LocalDateTime from,
+                                             @RequestParam("to") @DateTimeFormat(iso = ISO.DATE_TIME)
+                                             LocalDateTime to) {
+        log.debug("+ItemController - getAvailability: itemId = {}, from = {}, to = {}", itemId, from, to);
+        List<FreeSlotDto> slots = itemService.getAvailability(itemId, from, to);
+        log.debug("-ItemController - getAvailability: {}", slots);
+        return slots;
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestBody CommentDto comment, @PathVariable long itemId,
                               @RequestHeader(HEADER) long ownerId) {
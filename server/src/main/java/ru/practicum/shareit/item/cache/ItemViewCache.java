@@ -0,0 +1,49 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+
+import java.util.function.Function;
+
+/**
+ * Item detail views (item with its comments) shared by all viewers. Owner-only fields are never cached:
+ * last and next bookings depend on the viewer and on the current time.
+ */
+@Slf4j
+@Component
+public class ItemViewCache {
+    private static final ItemMapper itemMapper = ItemMapper.INSTANCE;
+
+    private final Cache<Long, ItemDto> views;
+
+    private final Timer loads;
+
+    public ItemViewCache(@Value("${shareit.cache.item-views.maximum-size}") long maximumSize,
+                         MeterRegistry meterRegistry) {
+        views = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, views, "itemViews");
+        loads = Timer.builder("item.view.load")
+                .description("Time spent assembling item views on cache misses")
+                .register(meterRegistry);
+    }
+
+    public ItemDto get(long itemId, Function<Long, ItemDto> loader) {
+        return itemMapper.copyItemDto(views.get(itemId, id -> loads.record(() -> loader.apply(id))));
+    }
+
+    public void evict(long itemId) {
+        log.debug("ItemViewCache - evict: itemId = {}", itemId);
+        views.invalidate(itemId);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResultDto {
+    private long line;
+
+    private Long id;
+
+    private String error;
+
+    public static BulkItemResultDto created(long line, long id) {
+        return new BulkItemResultDto(line, id, null);
+    }
+
+    public static BulkItemResultDto rejected(long line, String error) {
+        return new BulkItemResultDto(line, null, error);
+    }
+}
@@ -2,8 +2,8 @@ package ru.practicum.shareit.item.dto;
 
 import lombok.Data;
 import ru.practicum.shareit.booking.model.LastOrNextBooking;
-import ru.practicum.shareit.comment.model.Comment;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.comment.dto.CommentDto;
+
 import java.util.List;
 
 @Data
@@ -16,13 +16,13 @@ public class ItemDto {
 
     private Boolean available;
 
-    private User owner;
+    private long ownerId;
 
     private LastOrNextBooking lastBooking;
 
     private LastOrNextBooking nextBooking;
 
-    private List<Comment> comments;
+    private List<CommentDto> comments;
 
     private long requestId;
 }
\ No newline at end of file
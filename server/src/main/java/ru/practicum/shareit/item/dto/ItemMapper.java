@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.dto;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 import ru.practicum.shareit.item.model.Item;
 
@@ -8,7 +9,11 @@ import ru.practicum.shareit.item.model.Item;
 public interface ItemMapper {
     ItemMapper INSTANCE = Mappers.getMapper(ItemMapper.class);
 
+    @Mapping(target = "ownerId", source = "owner.id")
     ItemDto itemToItemDto(Item item);
 
+    @Mapping(target = "owner", ignore = true)
     Item itemDtoToItem(ItemDto itemDto);
+
+    ItemDto copyItemDto(ItemDto itemDto);
 }
\ No newline at end of file
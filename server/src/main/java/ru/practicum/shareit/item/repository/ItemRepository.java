@@ -2,12 +2,15 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.util.Streamable;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @EnableJpaRepositories
@@ -15,16 +18,21 @@ import java.util.Optional;
 public interface ItemRepository extends Repository<Item, Long> {
     Item save(Item item);
 
+    List<Item> saveAll(Iterable<Item> items);
+
     Optional<Item> findById(Long primaryKey);
 
-    Page<Item>
-    findAllByNameOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(String searchName,
-                                                                     String searchDescription,
-                                                                     Pageable pageable);
+    boolean existsById(Long primaryKey);
+
+    Streamable<Item> findByIdIn(Collection<Long> ids);
+
+    Slice<Item> findByAvailableIsTrueAndIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
 
     Page<Item> findByOwnerIdOrderByIdAsc(Long ownerId, Pageable pageable);
 
-    Streamable<Item> findByOwnerIdAndRequestId(Long ownerId, Long requestId);
+    Streamable<Item> findByOwnerIdAndRequestIdIn(Long ownerId, Collection<Long> requestIds);
+
+    Streamable<Item> findByRequestIdIn(Collection<Long> requestIds);
 
     Streamable<Item> findByRequestId(Long requestId);
 }
\ No newline at end of file
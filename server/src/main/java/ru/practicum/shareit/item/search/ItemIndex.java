@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+public interface ItemIndex {
+    void index(Item item);
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+
+/**
+ * Feeds every item written through the repository to the in-memory item indexes once the transaction commits.
+ */
+@RequiredArgsConstructor
+public class ItemIndexListener {
+    private final ObjectProvider<ItemIndex> indexes;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Item item) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index(item);
+                }
+            });
+        } else {
+            index(item);
+        }
+    }
+
+    private void index(Item item) {
+        indexes.forEach(index -> index.index(item));
+    }
+}
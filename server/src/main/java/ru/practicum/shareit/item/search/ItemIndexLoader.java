@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemIndexLoader {
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final List<ItemIndex> indexes;
+
+    @PostConstruct
+    public void load() {
+        long lastId = 0;
+        long count = 0;
+        Slice<Item> items;
+        do {
+            items = itemRepository.findByAvailableIsTrueAndIdGreaterThanOrderByIdAsc(lastId,
+                    PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Item item : items) {
+                indexes.forEach(index -> index.index(item));
+                lastId = item.getId();
+                count++;
+            }
+        } while (items.hasNext());
+        log.info("ItemIndexLoader - load: {} items loaded into {}", count, indexes);
+    }
+}
@@ -0,0 +1,196 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Radix trie over the names of available items. Every node caches the most frequent names below it,
+ * so a suggestion is a walk down the prefix plus a cached list; writes drop the caches on their path.
+ */
+@Component
+public class ItemNameTrie implements ItemIndex {
+    public static final int MAX_SUGGESTIONS = 20;
+    private static final Comparator<Suggestion> BY_POPULARITY = Comparator
+            .comparingInt((Suggestion s) -> s.count).reversed()
+            .thenComparing(s -> s.name);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Node root = new Node("");
+
+    private final Map<Long, String> names = new HashMap<>();
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            String previous = names.remove(item.getId());
+            if (previous != null) {
+                remove(previous);
+            }
+            if (Boolean.TRUE.equals(item.getAvailable()) && item.getName() != null && !item.getName().isBlank()) {
+                String name = item.getName().strip();
+                names.put(item.getId(), name);
+                insert(name);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int size) {
+        String key = key(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int depth = 0;
+            while (depth < key.length()) {
+                node = node.children.get(key.charAt(depth));
+                if (node == null) {
+                    return List.of();
+                }
+                int matched = commonPrefix(node.label, key, depth);
+                if (depth + matched < key.length() && matched < node.label.length()) {
+                    return List.of();
+                }
+                depth += matched;
+            }
+            return top(node).stream()
+                    .limit(size)
+                    .map(s -> s.name)
+                    .collect(toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(String name) {
+        String key = key(name);
+        Node node = root;
+        node.top = null;
+        int depth = 0;
+        while (depth < key.length()) {
+            char first = key.charAt(depth);
+            Node child = node.children.get(first);
+            if (child == null) {
+                child = new Node(key.substring(depth));
+                node.children.put(first, child);
+                node = child;
+                break;
+            }
+            int matched = commonPrefix(child.label, key, depth);
+            if (matched < child.label.length()) {
+                Node split = new Node(child.label.substring(0, matched));
+                child.label = child.label.substring(matched);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(first, split);
+                child = split;
+            }
+            node = child;
+            node.top = null;
+            depth += matched;
+        }
+        node.top = null;
+        node.spellings.merge(name, 1, Integer::sum);
+    }
+
+    private void remove(String name) {
+        String key = key(name);
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int depth = 0;
+        while (depth < key.length()) {
+            node = node.children.get(key.charAt(depth));
+            depth += node.label.length();
+            path.add(node);
+        }
+        path.forEach(n -> n.top = null);
+        if (node.spellings.merge(name, -1, Integer::sum) == 0) {
+            node.spellings.remove(name);
+        }
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node current = path.get(i);
+            Node parent = path.get(i - 1);
+            if (!current.spellings.isEmpty()) {
+                break;
+            }
+            if (current.children.isEmpty()) {
+                parent.children.remove(current.label.charAt(0));
+            } else if (current.children.size() == 1) {
+                Node only = current.children.values().iterator().next();
+                only.label = current.label + only.label;
+                parent.children.put(only.label.charAt(0), only);
+                break;
+            } else {
+                break;
+            }
+        }
+    }
+
+    private List<Suggestion> top(Node node) {
+        List<Suggestion> top = node.top;
+        if (top != null) {
+            return top;
+        }
+        List<Suggestion> candidates = new ArrayList<>();
+        node.spellings.forEach((name, count) -> candidates.add(new Suggestion(name, count)));
+        node.children.values().forEach(child -> candidates.addAll(top(child)));
+        top = candidates.stream()
+                .sorted(BY_POPULARITY)
+                .limit(MAX_SUGGESTIONS)
+                .collect(toList());
+        node.top = top;
+        return top;
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int length = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < length && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static String key(String text) {
+        return text.strip().toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    private static class Node {
+        private String label;
+
+        private final Map<Character, Node> children = new TreeMap<>();
+
+        private final Map<String, Integer> spellings = new TreeMap<>();
+
+        private volatile List<Suggestion> top;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private static class Suggestion {
+        private final String name;
+
+        private final int count;
+
+        private Suggestion(String name, int count) {
+            this.name = name;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Typo-tolerant index: the vocabulary of available items is indexed by character trigrams of its
+ * transliterated words, so "drel" and "дрелл" both reach items named "Дрель". Every query word has to
+ * be similar (trigram Dice coefficient) to some word of the item.
+ */
+@Component
+public class ItemNgramIndex implements ItemIndex {
+    private static final int GRAM_SIZE = 3;
+    private static final double MIN_SIMILARITY = 0.5;
+    private static final int MAX_CANDIDATE_WORDS = 1000;
+    private static final int MAX_SIMILAR_WORDS = 20;
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final Map<Character, String> TRANSLITERATION = transliteration();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Set<String>> gramWords = new HashMap<>();
+
+    private final Map<String, Map<Long, Integer>> wordItems = new HashMap<>();
+
+    private final Map<Long, Set<String>> itemWords = new HashMap<>();
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                Map<String, Integer> words = new HashMap<>();
+                words(item.getName()).forEach(w -> words.merge(w, NAME_WEIGHT, Math::max));
+                words(item.getDescription()).forEach(w -> words.merge(w, DESCRIPTION_WEIGHT, Math::max));
+                words.forEach((word, weight) -> add(word, item.getId(), weight));
+                itemWords.put(item.getId(), words.keySet());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(String text, int from, int size) {
+        List<String> queryWords = words(text).stream()
+                .distinct()
+                .collect(toList());
+        if (queryWords.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String queryWord : queryWords) {
+                Map<Long, Double> wordScores = scoreWord(queryWord);
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    scores.keySet().retainAll(wordScores.keySet());
+                    scores.replaceAll((id, score) -> score + wordScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .skip(from)
+                    .limit(size)
+                    .map(Map.Entry::getKey)
+                    .collect(toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreWord(String queryWord) {
+        Map<Long, Double> scores = new HashMap<>();
+        similarWords(queryWord).forEach((word, similarity) ->
+                wordItems.get(word).forEach((id, weight) -> scores.merge(id, similarity * weight, Math::max)));
+        return scores;
+    }
+
+    private Map<String, Double> similarWords(String queryWord) {
+        Set<String> queryGrams = grams(queryWord);
+        List<String> rarestFirst = new ArrayList<>(queryGrams);
+        rarestFirst.sort(Comparator.comparingInt(g -> gramWords.getOrDefault(g, Set.of()).size()));
+
+        // the overlap is at most |w|, so 2·overlap / (|q| + |w|) >= s needs overlap >= s·|q| / (2 - s);
+        // any such word contains one of the rarest (|q| - minOverlap + 1) grams and the others need not be probed
+        int minOverlap = (int) Math.ceil(MIN_SIMILARITY * queryGrams.size() / (2 - MIN_SIMILARITY) - 1e-9);
+        Set<String> candidates = new HashSet<>();
+        for (String gram : rarestFirst.subList(0, queryGrams.size() - minOverlap + 1)) {
+            for (String word : gramWords.getOrDefault(gram, Set.of())) {
+                if (candidates.size() == MAX_CANDIDATE_WORDS) {
+                    break;
+                }
+                candidates.add(word);
+            }
+        }
+
+        Map<String, Double> similar = new HashMap<>();
+        candidates.forEach(word -> {
+            Set<String> wordGrams = grams(word);
+            long overlap = wordGrams.stream().filter(queryGrams::contains).count();
+            double similarity = 2.0 * overlap / (wordGrams.size() + queryGrams.size());
+            if (similarity >= MIN_SIMILARITY) {
+                similar.put(word, similarity);
+            }
+        });
+        return similar.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
+                .limit(MAX_SIMILAR_WORDS)
+                .collect(HashMap::new, (m, e) -> m.put(e.getKey(), e.getValue()), HashMap::putAll);
+    }
+
+    private void add(String word, long itemId, int weight) {
+        Map<Long, Integer> items = wordItems.computeIfAbsent(word, w -> {
+            grams(w).forEach(g -> gramWords.computeIfAbsent(g, k -> new HashSet<>()).add(w));
+            return new HashMap<>();
+        });
+        items.put(itemId, weight);
+    }
+
+    private void remove(long itemId) {
+        Set<String> words = itemWords.remove(itemId);
+        if (words == null) {
+            return;
+        }
+        words.forEach(word -> {
+            Map<Long, Integer> items = wordItems.get(word);
+            items.remove(itemId);
+            if (items.isEmpty()) {
+                wordItems.remove(word);
+                grams(word).forEach(g -> {
+                    Set<String> gramWordSet = gramWords.get(g);
+                    gramWordSet.remove(word);
+                    if (gramWordSet.isEmpty()) {
+                        gramWords.remove(g);
+                    }
+                });
+            }
+        });
+    }
+
+    private static List<String> words(String text) {
+        return Tokenizer.tokenize(text).stream()
+                .map(ItemNgramIndex::transliterate)
+                .filter(w -> !w.isEmpty())
+                .collect(toList());
+    }
+
+    private static Set<String> grams(String word) {
+        String padded = "  " + word + " ";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static String transliterate(String word) {
+        StringBuilder latin = new StringBuilder(word.length());
+        for (char c : word.toCharArray()) {
+            latin.append(TRANSLITERATION.getOrDefault(c, String.valueOf(c)));
+        }
+        return latin.toString();
+    }
+
+    private static Map<Character, String> transliteration() {
+        String cyrillic = "абвгдежзийклмнопрстуфхцчшщъыьэюя";
+        String[] latin = {"a", "b", "v", "g", "d", "e", "zh", "z", "i", "y", "k", "l", "m", "n", "o", "p", "r",
+                "s", "t", "u", "f", "h", "ts", "ch", "sh", "sch", "", "y", "", "e", "yu", "ya"};
+        Map<Character, String> table = new HashMap<>();
+        for (int i = 0; i < cyrillic.length(); i++) {
+            table.put(cyrillic.charAt(i), latin[i]);
+        }
+        return table;
+    }
+}
@@ -0,0 +1,169 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Inverted index over names and descriptions of available items. A query matches an item when every
+ * query term is a term or a term prefix of the item; matches are ranked by tf-idf with name terms
+ * weighted higher than description terms.
+ */
+@Component
+public class ItemSearchIndex implements ItemIndex {
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_MATCH_WEIGHT = 0.5;
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final int MIN_MATCH_TERM_LENGTH = 3;
+    private static final int MIN_STEM_LENGTH = 4;
+    private static final int MAX_STEM_SUFFIX = 2;
+    private static final Comparator<Map.Entry<Long, Double>> BEST_FIRST = Map.Entry.<Long, Double>comparingByValue(
+            Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                Map<String, Integer> terms = new HashMap<>();
+                Tokenizer.tokenize(item.getName()).forEach(t -> terms.merge(t, NAME_WEIGHT, Integer::sum));
+                Tokenizer.tokenize(item.getDescription())
+                        .forEach(t -> terms.merge(t, DESCRIPTION_WEIGHT, Integer::sum));
+                terms.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(item.getId(), tf));
+                documents.put(item.getId(), terms);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(String text, int from, int size) {
+        List<String> queryTerms = Tokenizer.tokenize(text).stream()
+                .distinct()
+                .collect(toList());
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = scoreTerm(queryTerm, queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return top(scores, from, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Items matching any term of a free-form text such as a request description, best first. Unlike
+     * {@link #search} an item does not need every term; short words are skipped and longer ones are probed
+     * by their stem, so "дрелью" still reaches "Дрель".
+     */
+    public List<Long> match(String text, int size) {
+        List<String> queryTerms = Tokenizer.tokenize(text).stream()
+                .filter(t -> t.length() >= MIN_MATCH_TERM_LENGTH)
+                .distinct()
+                .collect(toList());
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = new HashMap<>();
+            queryTerms.forEach(queryTerm -> scoreTerm(stem(queryTerm), queryTerm)
+                    .forEach((id, score) -> scores.merge(id, score, Double::sum)));
+            return top(scores, 0, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores the items of every term starting with {@code prefix}; only {@code queryTerm} itself gets full weight.
+     */
+    private Map<Long, Double> scoreTerm(String prefix, String queryTerm) {
+        Map<Long, Double> scores = new HashMap<>();
+        int expanded = 0;
+        for (Map.Entry<String, Map<Long, Integer>> posting
+                : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+            if (expanded++ == MAX_PREFIX_TERMS) {
+                break;
+            }
+            double weight = posting.getKey().equals(queryTerm) ? 1 : PREFIX_MATCH_WEIGHT;
+            double idf = Math.log(1 + (double) documents.size() / posting.getValue().size());
+            posting.getValue().forEach((id, tf) -> scores.merge(id, weight * tf * idf, Double::sum));
+        }
+        return scores;
+    }
+
+    /**
+     * Keeps only the best {@code from + size} scores in a heap instead of sorting every matched item.
+     */
+    private static List<Long> top(Map<Long, Double> scores, int from, int size) {
+        long limit = (long) from + size;
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(BEST_FIRST.reversed());
+        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+            best.add(score);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<Long, Double>> sorted = new ArrayList<>(best);
+        sorted.sort(BEST_FIRST);
+        return sorted.stream()
+                .skip(from)
+                .map(Map.Entry::getKey)
+                .collect(toList());
+    }
+
+    private static String stem(String term) {
+        return term.length() <= MIN_STEM_LENGTH
+                ? term
+                : term.substring(0, Math.max(MIN_STEM_LENGTH, term.length() - MAX_STEM_SUFFIX));
+    }
+
+    private void remove(long itemId) {
+        Map<String, Integer> terms = documents.remove(itemId);
+        if (terms == null) {
+            return;
+        }
+        terms.keySet().forEach(term -> {
+            Map<Long, Integer> posting = postings.get(term);
+            posting.remove(itemId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        });
+    }
+}
@@ -1,20 +1,30 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.BulkItemResultDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     ItemDto addItem(ItemDto itemDto, long ownerId);
 
+    List<BulkItemResultDto> addItems(InputStream items, long ownerId);
+
     List<ItemDto> getAllItemsByOwnerId(long ownerId);
 
     ItemDto updateItem(ItemDto itemDto, long ownerId, long itemId);
 
     ItemDto getItemById(long itemId, long ownerId);
 
-    List<ItemDto> searchItems(String searchText);
+    List<ItemDto> searchItems(String searchText, boolean fuzzy, int from, int size);
+
+    List<String> suggestItemNames(String prefix, int size);
+
+    List<FreeSlotDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
 
     CommentDto addComment(CommentDto comment, long ownerId, long itemId);
 }
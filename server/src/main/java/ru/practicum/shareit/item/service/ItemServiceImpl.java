@@ -1,35 +1,64 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.model.LastOrNextBooking;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingTimelineIndex;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.dto.CommentMapper;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.dto.BulkItemResultDto;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.exception.ObjectsDbException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemNameTrie;
+import ru.practicum.shareit.item.search.ItemNgramIndex;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.cache.UserPresenceCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 import static ru.practicum.shareit.booking.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.BookingStatus.WAITING;
 
 @Slf4j
 @Service
@@ -39,33 +68,86 @@ public class ItemServiceImpl implements ItemService {
     private static final ItemMapper itemMapper = ItemMapper.INSTANCE;
     private static final int FROM = 0;
     private static final int SIZE = 10;
+    private static final int BULK_BATCH_SIZE = 50;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
     private final CommentRepository commentRepository;
+    private final BookingTimelineIndex bookingTimelineIndex;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemNgramIndex itemNgramIndex;
+    private final ItemNameTrie itemNameTrie;
+    private final ItemViewCache itemViewCache;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final UserPresenceCache userPresenceCache;
 
     @Override
     public ItemDto addItem(ItemDto itemDto, long ownerId) {
         log.debug("+ItemServiceImpl - addItem: {}. ownerId = {}", itemDto, ownerId);
-        itemDto.setOwner(userRepository.findById(ownerId)
-                .orElseThrow(() ->  new ObjectNotFoundException("ownerId не найден")));
-        ItemDto item = itemMapper.itemToItemDto(itemRepository.save(itemMapper.itemDtoToItem(itemDto)));
+        Item newItem = itemMapper.itemDtoToItem(itemDto);
+        newItem.setOwner(getOwner(ownerId));
+        ItemDto item = itemMapper.itemToItemDto(itemRepository.save(newItem));
         log.debug("-ItemServiceImpl - addItem: {}", item);
         return item;
    }
 
+    @Override
+    public List<BulkItemResultDto> addItems(InputStream items, long ownerId) {
+        log.debug("+ItemServiceImpl - addItems: ownerId = {}", ownerId);
+        User owner = getOwner(ownerId);
+        ObjectReader reader = objectMapper.readerFor(ItemDto.class);
+        List<BulkItemResultDto> results = new ArrayList<>();
+        Map<Long, Item> batch = new LinkedHashMap<>();
+
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(items, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                ItemDto itemDto;
+                try {
+                    itemDto = reader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    results.add(BulkItemResultDto.rejected(lineNumber, "malformed item: " + e.getOriginalMessage()));
+                    continue;
+                }
+                String error = validateNewItem(itemDto);
+                if (error != null) {
+                    results.add(BulkItemResultDto.rejected(lineNumber, error));
+                    continue;
+                }
+                itemDto.setId(0);
+                Item item = itemMapper.itemDtoToItem(itemDto);
+                item.setOwner(owner);
+                batch.put(lineNumber, item);
+                if (batch.size() == BULK_BATCH_SIZE) {
+                    saveBatch(batch, results);
+                }
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("items stream could not be read", e);
+        }
+        saveBatch(batch, results);
+
+        results.sort(Comparator.comparingLong(BulkItemResultDto::getLine));
+        log.debug("-ItemServiceImpl - addItems: {} rows", results.size());
+        return results;
+    }
+
     @Override
     public List<ItemDto> getAllItemsByOwnerId(long ownerId) {
         log.debug("+ItemServiceImpl - getAllItemsByOwnerId: ownerId = {}", ownerId);
-        List<ItemDto> allItemsByOwnerId = itemRepository.findByOwnerIdOrderByIdAsc(ownerId, PageRequest.of(FROM, SIZE))
+        List<ItemDto> itemsDto = itemRepository.findByOwnerIdOrderByIdAsc(ownerId, PageRequest.of(FROM, SIZE))
                 .stream()
                 .map(itemMapper::itemToItemDto)
                 .collect(toList());
 
-        List<ItemDto> itemsDto = new ArrayList<>();
-        allItemsByOwnerId.forEach(i -> {
-            itemsDto.add(setCommentsAndBooking(i, ownerId));
-        });
+        setCommentsAndBookings(itemsDto, ownerId);
         log.debug("-ItemServiceImpl - getAllItemsByOwnerId: {}", itemsDto);
         return itemsDto;
     }
@@ -74,15 +156,16 @@ public class ItemServiceImpl implements ItemService {
     public ItemDto updateItem(ItemDto itemDto, long ownerId, long itemId) {
         log.debug("+ItemServiceImpl - updateItem: {}. ownerId = {}. itemId = {}", itemDto, ownerId, itemId);
 
-        if (userRepository.existsById(ownerId).equals(false)) {
+        if (!userPresenceCache.exists(ownerId)) {
             throw new ObjectNotFoundException("userId = " + ownerId + ", not found");
         }
 
-        ItemDto updatedItem = itemMapper.itemToItemDto(itemRepository.findById(itemId).orElseThrow(
-                () -> new ObjectsDbException("Вещи с itemId = " + itemId + " нет")));
+        Item existing = itemRepository.findById(itemId).orElseThrow(
+                () -> new ObjectsDbException("Вещи с itemId = " + itemId + " нет"));
+        ItemDto updatedItem = itemMapper.itemToItemDto(existing);
 
-        if (updatedItem.getOwner().getId() != ownerId) {
-            throw new ObjectsDbException("Нельзя менять владельца, актуальный ownerId = " + updatedItem.getOwner()
+        if (updatedItem.getOwnerId() != ownerId) {
+            throw new ObjectsDbException("Нельзя менять владельца, актуальный ownerId = " + updatedItem.getOwnerId()
                     + ", запрашиваемый ownerId = " + ownerId);
         }
 
@@ -90,10 +173,11 @@ public class ItemServiceImpl implements ItemService {
         Optional.ofNullable(itemDto.getDescription()).ifPresent(updatedItem::setDescription);
         Optional.ofNullable(itemDto.getAvailable()).ifPresent(updatedItem::setAvailable);
 
-        updatedItem.setOwner(userRepository.findById(ownerId)
-                .orElseThrow(() ->  new ObjectNotFoundException("ownerId не найден")));
+        Item item = itemMapper.itemDtoToItem(updatedItem);
+        item.setOwner(existing.getOwner());
 
-        updatedItem = itemMapper.itemToItemDto(itemRepository.save(itemMapper.itemDtoToItem(updatedItem)));
+        updatedItem = itemMapper.itemToItemDto(itemRepository.save(item));
+        itemViewCache.evict(itemId);
 
         log.debug("-ItemServiceImpl - updateItem: {}", updatedItem);
         return updatedItem;
@@ -102,28 +186,76 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public ItemDto getItemById(long itemId, long ownerId) {
         log.debug("+ItemServiceImpl - getItemById: itemId = {}", itemId);
-        ItemDto item = itemMapper.itemToItemDto(itemRepository.findById(itemId).orElseThrow(
-                () -> new ObjectNotFoundException("itemId = " + itemId + " not found")));
+        ItemDto item = itemViewCache.get(itemId, this::loadItemView);
+        setLastAndNextBookings(List.of(item), ownerId);
         log.debug("-ItemServiceImpl - getItemById: {}", item);
-        return setCommentsAndBooking(item, ownerId);
+        return item;
     }
 
     @Override
-    public List<ItemDto> searchItems(String searchText) {
-        log.debug("+ItemServiceImpl - searchItems: searchText = {}", searchText);
-        if (!searchText.isEmpty()) {
-            List<ItemDto> items = itemRepository
-                    .findAllByNameOrDescriptionContainingIgnoreCaseAndAvailableIsTrue(searchText,
-                            searchText, PageRequest.of(FROM, SIZE))
-                    .stream()
-                    .map(itemMapper::itemToItemDto)
-                    .collect(toList());
-            log.debug("-ItemServiceImpl - searchItems: {}", items);
-            return items;
-        } else {
+    public List<ItemDto> searchItems(String searchText, boolean fuzzy, int from, int size) {
+        log.debug("+ItemServiceImpl - searchItems: searchText = {}, fuzzy = {}, from = {}, size = {}",
+                searchText, fuzzy, from, size);
+        List<Long> ids = fuzzy
+                ? itemNgramIndex.search(searchText, from, size)
+                : itemSearchIndex.search(searchText, from, size);
+        if (ids.isEmpty()) {
             log.debug("-ItemServiceImpl - searchItems: not found");
             return Collections.emptyList();
         }
+        Map<Long, Item> found = itemRepository.findByIdIn(ids)
+                .stream()
+                .collect(toMap(Item::getId, identity()));
+        List<ItemDto> items = ids.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .map(itemMapper::itemToItemDto)
+                .collect(toList());
+        log.debug("-ItemServiceImpl - searchItems: {}", items);
+        return items;
+    }
+
+    @Override
+    public List<String> suggestItemNames(String prefix, int size) {
+        log.debug("+ItemServiceImpl - suggestItemNames: prefix = {}, size = {}", prefix, size);
+        List<String> names = itemNameTrie.suggest(prefix, Math.min(size, ItemNameTrie.MAX_SUGGESTIONS));
+        log.debug("-ItemServiceImpl - suggestItemNames: {}", names);
+        return names;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FreeSlotDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        log.debug("+ItemServiceImpl - getAvailability: itemId = {}, from = {}, to = {}", itemId, from, to);
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("from = " + from + " must be before to = " + to);
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new ObjectNotFoundException("itemId = " + itemId + " not found");
+        }
+        // time that has already passed can not be booked any more
+        LocalDateTime free = from.isBefore(LocalDateTime.now()) ? LocalDateTime.now() : from;
+        List<FreeSlotDto> slots = new ArrayList<>();
+        // bookings come ordered by start, so one pass that tracks the end of the busy time so far finds every gap
+        try (Stream<LastOrNextBooking> bookings = bookingRepository
+                .findByItemIdAndStatusInAndEndAfterAndStartBeforeOrderByStartAsc(itemId, List.of(WAITING, APPROVED),
+                        free, to)) {
+            Iterator<LastOrNextBooking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                LastOrNextBooking booking = iterator.next();
+                if (booking.getStart().isAfter(free)) {
+                    slots.add(new FreeSlotDto(free, booking.getStart()));
+                }
+                if (booking.getEnd().isAfter(free)) {
+                    free = booking.getEnd();
+                }
+            }
+        }
+        if (free.isBefore(to)) {
+            slots.add(new FreeSlotDto(free, to));
+        }
+        log.debug("-ItemServiceImpl - getAvailability: {}", slots);
+        return slots;
     }
 
     @Override
@@ -131,15 +263,13 @@ public class ItemServiceImpl implements ItemService {
         log.debug("+ItemServiceImpl - addComment: comment = {}, ownerId = {}, itemId = {}", commentDto, userId, itemId);
         log.debug("ItemServiceImpl - addComment: {}", LocalDateTime.now());
 
-        Optional<List<Booking>> booking = bookingRepository
-                .findByItemIdAndBookerIdAndStatusAndEndBefore(itemId, userId, APPROVED,
-                        LocalDateTime.now());
-
-        if (booking.get().isEmpty()) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(itemId, userId, APPROVED, now)
+                && !bookingArchiveRepository.existsByItemIdAndBookerIdAndStatusAndEndBefore(itemId, userId, APPROVED,
+                now)) {
             throw new BadRequestException("userId = " + userId + " not booked itemId = "
                     + itemId);
         }
-        log.debug("ItemServiceImpl - addComment: booking = {}", booking);
 
         Comment comment = commentMapper.commentDtoToComment(commentDto);
 
@@ -154,72 +284,104 @@ public class ItemServiceImpl implements ItemService {
 
         log.debug("ItemServiceImpl - addComment: comment = {}", comment);
         CommentDto answer = commentMapper.commentToCommentDto(commentRepository.save(comment));
+        itemViewCache.evict(itemId);
         log.debug("-ItemServiceImpl - addComment: answer = {}", answer);
         return answer;
     }
 
-    private List<Comment> getCommentsToItem(ItemDto item) {
-        log.debug("+ItemServiceImpl - setCommentsToItem: ItemDtoWithBooking = {}", item);
-        List<Comment> comments = Collections.emptyList();
+    private User getOwner(long ownerId) {
+        if (!userPresenceCache.exists(ownerId)) {
+            throw new ObjectNotFoundException("ownerId не найден");
+        }
+        return userRepository.getReferenceById(ownerId);
+    }
+
+    private Map<Long, List<CommentDto>> getCommentsToItems(List<Long> itemIds) {
+        log.debug("+ItemServiceImpl - getCommentsToItems: itemIds = {}", itemIds);
+        Map<Long, List<CommentDto>> comments;
         try {
-            comments = commentRepository.findByItemId(item.getId())
+            comments = commentRepository.findByItemIdIn(itemIds)
                     .stream()
-                    .collect(toList());
+                    .collect(groupingBy(CommentDto::getItemId));
         } catch (InvalidDataAccessResourceUsageException e) {
-            log.debug("ItemServiceImpl - setCommentsToItem: no comments");
-            throw new ObjectNotFoundException("itemId = " + item.getId() + " no comments");
+            log.debug("ItemServiceImpl - getCommentsToItems: no comments");
+            throw new ObjectNotFoundException("itemIds = " + itemIds + " no comments");
         }
-        log.debug("ItemServiceImpl - setCommentsToItem: comments = {}", comments);
+        log.debug("-ItemServiceImpl - getCommentsToItems: comments = {}", comments);
         return comments;
     }
 
-    private ItemDto setCommentsAndBooking(ItemDto itemDto, long ownerId) {
-        itemDto.setComments(getCommentsToItem(itemDto));
-        itemDto.setLastBooking(getLastBooking(itemDto, ownerId));
-        itemDto.setNextBooking(getNextBooking(itemDto, ownerId));
-        return itemDto;
+    private void saveBatch(Map<Long, Item> batch, List<BulkItemResultDto> results) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<Item> saved = transactionTemplate.execute(status -> itemRepository.saveAll(batch.values()));
+            Iterator<Item> savedItems = Objects.requireNonNull(saved).iterator();
+            batch.keySet().forEach(line -> results.add(BulkItemResultDto.created(line, savedItems.next().getId())));
+        } catch (RuntimeException e) {
+            log.debug("ItemServiceImpl - saveBatch: batch of {} failed", batch.size(), e);
+            String error = "batch not saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            batch.keySet().forEach(line -> results.add(BulkItemResultDto.rejected(line, error)));
+        }
+        batch.clear();
     }
 
+    private static String validateNewItem(ItemDto itemDto) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "name may not be blank";
+        }
+        if (itemDto.getName().length() > 255) {
+            return "name size must be between 0 and 255";
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "description may not be blank";
+        }
+        if (itemDto.getDescription().length() > 500) {
+            return "description size must be between 0 and 500";
+        }
+        if (itemDto.getAvailable() == null) {
+            return "available must not be null";
+        }
+        return null;
+    }
 
-    private LastOrNextBooking getLastBooking(ItemDto item, long ownerId) {
-        boolean isLastBooking = true;
-        return getBookingToItem(item, ownerId, isLastBooking);
+    private ItemDto loadItemView(long itemId) {
+        log.debug("ItemServiceImpl - loadItemView: itemId = {}", itemId);
+        ItemDto item = itemMapper.itemToItemDto(itemRepository.findById(itemId).orElseThrow(
+                () -> new ObjectNotFoundException("itemId = " + itemId + " not found")));
+        item.setComments(getCommentsToItems(List.of(itemId)).getOrDefault(itemId, Collections.emptyList()));
+        return item;
     }
 
-    private LastOrNextBooking getNextBooking(ItemDto item, long ownerId) {
-        boolean isLastBooking = false;
-        return getBookingToItem(item, ownerId, isLastBooking);
+    private void setCommentsAndBookings(List<ItemDto> items, long ownerId) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<Long> itemIds = items.stream()
+                .map(ItemDto::getId)
+                .collect(toList());
+        Map<Long, List<CommentDto>> comments = getCommentsToItems(itemIds);
+        items.forEach(i -> i.setComments(comments.getOrDefault(i.getId(), Collections.emptyList())));
+        setLastAndNextBookings(items, ownerId);
     }
 
-    private LastOrNextBooking getBookingToItem(ItemDto item, long ownerId, boolean isLastBooking) {
-        log.debug("+ItemServiceImpl - getBookingToItem: ItemDtoWithBooking = {}, ownerId = {}", item, ownerId);
-        List<LastOrNextBooking> bookings = bookingRepository
-                .findByItemIdOrderByStartAsc(item.getId())
-                .stream()
-                .filter(b -> b.getStatus().equals(APPROVED))
-                .collect(Collectors.toList());
-
-        log.debug("ItemServiceImpl - getBookingToItem: bookings = {}, LocalDateTime.now() = {}", bookings, LocalDateTime.now());
-        LastOrNextBooking answer = null;
-        if (item.getOwner().getId() == ownerId && !bookings.isEmpty()) {
-            LocalDateTime now = LocalDateTime.now();
-
-            int lastBookingIndex = 0;
-            for (int i = 0; i < bookings.size(); i++) {
-                if (bookings.get(i).getStart().isBefore(now)) {
-                    lastBookingIndex = i;
-                }
-            }
-            int nextBookingIndex = lastBookingIndex + 1;
-            if (isLastBooking) {
-                if (bookings.get(lastBookingIndex).getStart().isBefore(now)) {
-                    answer = bookings.get(lastBookingIndex);
-                }
-            } else if (bookings.size() > nextBookingIndex) {
-                answer = bookings.get(nextBookingIndex);
-            }
+    private void setLastAndNextBookings(List<ItemDto> items, long ownerId) {
+        List<Long> ownItemIds = items.stream()
+                .filter(i -> i.getOwnerId() == ownerId)
+                .map(ItemDto::getId)
+                .collect(toList());
+        if (ownItemIds.isEmpty()) {
+            return;
         }
-        log.debug("-ItemServiceImpl - getBookingToItem: ItemDtoWithBooking = {}", item);
-        return answer;
+        bookingTimelineIndex.preload(ownItemIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        items.forEach(i -> {
+            if (i.getOwnerId() == ownerId) {
+                i.setLastBooking(bookingTimelineIndex.getLastBooking(i.getId(), now));
+                i.setNextBooking(bookingTimelineIndex.getNextBooking(i.getId(), now));
+            }
+        });
     }
-}
\ No newline at end of file
+}
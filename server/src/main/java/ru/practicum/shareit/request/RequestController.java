@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -10,6 +11,8 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.RequestsDto;
 import ru.practicum.shareit.request.service.RequestService;
 
@@ -41,12 +44,25 @@ public class RequestController {
     }
 
     @GetMapping("/all")
-    List<RequestsDto> getAllRequest(@RequestParam(name = "from", defaultValue = "0") int from,
+    ResponseEntity<List<RequestsDto>> getAllRequest(@RequestParam(name = "from", defaultValue = "0") int from,
                                     @RequestParam(name = "size", defaultValue = "10") int size,
+                                    @RequestParam(name = "cursor", required = false) String cursor,
                                     @RequestHeader(HEADER) long userId) {
-        log.info("+requestController - getAllRequest: from = {}, size = {}", from, size);
-        List<RequestsDto> answer = requestService.getAllRequest(from, size, userId);
+        log.info("+requestController - getAllRequest: from = {}, size = {}, cursor = {}", from, size, cursor);
+        CursorPage<RequestsDto> answer = requestService.getAllRequest(from, size, cursor, userId);
         log.info("-requestController - getAllRequest: {}", answer);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (answer.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, answer.getNextCursor());
+        }
+        return response.body(answer.getItems());
+    }
+
+    @GetMapping("/{requestId}/suggestions")
+    List<ItemDto> getSuggestions(@PathVariable long requestId, @RequestHeader(HEADER) long userId) {
+        log.info("+requestController - getSuggestions: requestId = {}", requestId);
+        List<ItemDto> answer = requestService.getSuggestions(requestId, userId);
+        log.info("-requestController - getSuggestions: {}", answer);
         return answer;
     }
 
@@ -2,10 +2,10 @@ package ru.practicum.shareit.request.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Data;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.time.LocalDateTime;
-import java.util.Set;
+import java.util.List;
 
 @Data
 public class RequestsDto {
@@ -18,7 +18,7 @@ public class RequestsDto {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = DATE_PATTERN)
     LocalDateTime created;
 
-    private Set<Item> items;
+    private List<ItemDto> items;
 
     private long ownerId;
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.request.model;
+
+import lombok.Data;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+
+@Data
+@Entity
+@Table(name = "request_suggestions")
+@IdClass(RequestSuggestionId.class)
+public class RequestSuggestion {
+    @Id
+    @Column(name = "request_id")
+    private long requestId;
+
+    @Id
+    @Column(name = "item_id")
+    private long itemId;
+
+    @Column(name = "item_rank")
+    private int rank;
+}
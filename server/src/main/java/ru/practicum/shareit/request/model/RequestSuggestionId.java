@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestSuggestionId implements Serializable {
+    private long requestId;
+
+    private long itemId;
+}
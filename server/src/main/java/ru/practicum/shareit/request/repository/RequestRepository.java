@@ -1,10 +1,12 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.util.Streamable;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.request.model.Request;
@@ -19,7 +21,24 @@ public interface RequestRepository  extends Repository<Request, Long>, PagingAnd
 
     Optional<Request> findById(long id);
 
-    Streamable<Request> findByOwnerId(long ownerId);
+    Streamable<Request> findByOwnerIdOrderByCreatedAsc(long ownerId);
 
-    Page<Request> findAll(Pageable pageable);
+    /**
+     * Requests that have items of the owner, ordered by (created, id).
+     */
+    @Query("select r from Request r "
+            + "where exists (select i.id from Item i where i.requestId = r.id and i.owner.id = :ownerId) "
+            + "order by r.created asc, r.id asc")
+    Slice<Request> findAnsweredByOwner(@Param("ownerId") long ownerId, Pageable pageable);
+
+    /**
+     * Same as {@link #findAnsweredByOwner} but starts right after the request with {@code lastId}.
+     */
+    @Query("select r from Request r, Request last "
+            + "where last.id = :lastId "
+            + "and (r.created > last.created or (r.created = last.created and r.id > last.id)) "
+            + "and exists (select i.id from Item i where i.requestId = r.id and i.owner.id = :ownerId) "
+            + "order by r.created asc, r.id asc")
+    Slice<Request> findAnsweredByOwnerAfter(@Param("ownerId") long ownerId, @Param("lastId") long lastId,
+                                            Pageable pageable);
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.util.Streamable;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.RequestSuggestion;
+import ru.practicum.shareit.request.model.RequestSuggestionId;
+
+@EnableJpaRepositories
+@Transactional
+public interface RequestSuggestionRepository extends Repository<RequestSuggestion, RequestSuggestionId>,
+        RequestSuggestionRepositoryCustom {
+    /**
+     * Suggested items that are still available, best first.
+     */
+    @Query("select i from RequestSuggestion s join Item i on i.id = s.itemId "
+            + "where s.requestId = :requestId and i.available = true "
+            + "order by s.rank asc")
+    Streamable<Item> findSuggestedItems(@Param("requestId") long requestId);
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.request.repository;
+
+import java.util.List;
+
+public interface RequestSuggestionRepositoryCustom {
+    /**
+     * Stores the items suggested for the request with one JDBC batch, ranked in the order of {@code itemIds}.
+     */
+    void saveSuggestions(long requestId, List<Long> itemIds);
+}
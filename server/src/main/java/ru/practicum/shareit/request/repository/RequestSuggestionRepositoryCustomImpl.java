@@ -0,0 +1,36 @@
+package ru.practicum.shareit.request.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class RequestSuggestionRepositoryCustomImpl implements RequestSuggestionRepositoryCustom {
+    private static final String INSERT = "insert into request_suggestions (request_id, item_id, item_rank) "
+            + "values (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public void saveSuggestions(long requestId, List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        // the request itself may still be pending in the persistence context
+        entityManager.flush();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < itemIds.size(); i++) {
+            rows.add(new Object[]{requestId, itemIds.get(i), i});
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+}
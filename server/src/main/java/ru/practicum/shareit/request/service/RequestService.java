@@ -1,5 +1,7 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.request.dto.RequestsDto;
 
 import java.util.List;
@@ -9,7 +11,12 @@ public interface RequestService {
 
     List<RequestsDto> getOwnRequests(long ownerId);
 
-    List<RequestsDto> getAllRequest(int from, int size, long userId);
+    CursorPage<RequestsDto> getAllRequest(int from, int size, String cursor, long userId);
 
     RequestsDto getRequestById(long requestId, long userId);
+
+    /**
+     * Items suggested when the request was created that are still available, best match first.
+     */
+    List<ItemDto> getSuggestions(long requestId, long userId);
 }
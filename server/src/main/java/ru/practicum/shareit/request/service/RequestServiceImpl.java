@@ -2,21 +2,34 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.util.Streamable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.dto.RequestMapper;
 import ru.practicum.shareit.request.dto.RequestsDto;
+import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.request.repository.RequestSuggestionRepository;
+import ru.practicum.shareit.user.cache.UserPresenceCache;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -24,17 +37,26 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class RequestServiceImpl implements RequestService {
     private static final RequestMapper mapper = RequestMapper.INSTANCE;
+    private static final ItemMapper itemMapper = ItemMapper.INSTANCE;
     private final RequestRepository requestRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserPresenceCache userPresenceCache;
+    private final RequestSuggestionRepository requestSuggestionRepository;
+    private final ItemSearchIndex itemSearchIndex;
+
+    @Value("${shareit.request.suggestions.size}")
+    private int suggestionsSize;
 
     @Override
+    @Transactional
     public RequestsDto save(RequestsDto requestsDto, long ownerId) {
         log.info("+RequestServiceImpl - save: " + requestsDto);
         checkUser(ownerId);
         requestsDto.setCreated(LocalDateTime.now());
         requestsDto.setOwnerId(ownerId);
-        RequestsDto answer = mapper.requestToRequestDto(requestRepository.save(mapper.requestDtoToRequest(requestsDto)));
+        Request request = requestRepository.save(mapper.requestDtoToRequest(requestsDto));
+        requestSuggestionRepository.saveSuggestions(request.getId(), suggest(request));
+        RequestsDto answer = mapper.requestToRequestDto(request);
         log.info("-RequestServiceImpl - save: " + answer);
         return answer;
     }
@@ -43,33 +65,26 @@ public class RequestServiceImpl implements RequestService {
     public List<RequestsDto> getOwnRequests(long ownerId) {
         log.info("+RequestServiceImpl - getOwnRequests");
         checkUser(ownerId);
-        List<RequestsDto> answer = requestRepository.findByOwnerId(ownerId)
-                .stream()
-                .map(mapper::requestToRequestDto)
-                .peek(r -> {
-                    Set<Item> items = itemRepository.findByRequestId(r.getId()).toSet();
-                    r.setItems(items);
-                })
-                .sorted(Comparator.comparing(RequestsDto::getCreated))
-                .collect(Collectors.toList());
+        List<RequestsDto> answer = withItems(requestRepository.findByOwnerIdOrderByCreatedAsc(ownerId),
+                itemRepository::findByRequestIdIn);
 
         log.info("-RequestServiceImpl - getOwnRequests: " + answer);
         return answer;
     }
 
     @Override
-    public List<RequestsDto> getAllRequest(int from, int size, long userId) {
+    public CursorPage<RequestsDto> getAllRequest(int from, int size, String cursor, long userId) {
         checkUser(userId);
-        log.info("+RequestServiceImpl - getAllRequest: from = {}, size = {}", from, size);
-        List<RequestsDto> answer = requestRepository.findAll(PageRequest.of(from, size, Sort.by("created")))
-                .stream()
-                .map(mapper::requestToRequestDto)
-                .peek(r -> {
-                    Set<Item> items = itemRepository.findByOwnerIdAndRequestId(userId, r.getId()).toSet();
-                    r.setItems(items);
-                })
-                .filter(r -> !r.getItems().isEmpty())
-                .collect(Collectors.toList());
+        log.info("+RequestServiceImpl - getAllRequest: from = {}, size = {}, cursor = {}", from, size, cursor);
+        // only requests with items of the user are selected, so every page is full; a cursor replaces "from"
+        Slice<Request> requests = cursor == null
+                ? requestRepository.findAnsweredByOwner(userId, new OffsetPageRequest(from, size))
+                : requestRepository.findAnsweredByOwnerAfter(userId, CursorCodec.decode(cursor),
+                        PageRequest.of(0, size));
+        List<RequestsDto> items = withItems(requests,
+                requestIds -> itemRepository.findByOwnerIdAndRequestIdIn(userId, requestIds));
+        String nextCursor = requests.hasNext() ? CursorCodec.encode(items.get(items.size() - 1).getId()) : null;
+        CursorPage<RequestsDto> answer = new CursorPage<>(items, nextCursor);
         log.info("-RequestServiceImpl - getAllRequest: " + answer);
         return answer;
     }
@@ -80,14 +95,70 @@ public class RequestServiceImpl implements RequestService {
         log.info("+RequestServiceImpl - getRequestById: requestId = " + requestId);
         RequestsDto answer = mapper.requestToRequestDto(requestRepository.findById(requestId)
                 .orElseThrow(() -> new ObjectNotFoundException("requestId = " + requestId + " not found")));
-        Set<Item> items = itemRepository.findByRequestId(answer.getId()).toSet();
-        answer.setItems(items);
+        answer.setItems(toItemDtos(itemRepository.findByRequestId(answer.getId())));
         log.info("-RequestServiceImpl - getRequestById: requestId = " + requestId);
         return answer;
     }
 
+    @Override
+    public List<ItemDto> getSuggestions(long requestId, long userId) {
+        log.info("+RequestServiceImpl - getSuggestions: requestId = {}, userId = {}", requestId, userId);
+        checkUser(userId);
+        if (requestRepository.findById(requestId).isEmpty()) {
+            throw new ObjectNotFoundException("requestId = " + requestId + " not found");
+        }
+        List<ItemDto> answer = toItemDtos(requestSuggestionRepository.findSuggestedItems(requestId));
+        log.info("-RequestServiceImpl - getSuggestions: {}", answer);
+        return answer;
+    }
+
+    /**
+     * Available items of other users that match the description best. The index does not know owners, so it is
+     * asked for twice as many candidates as needed and the requester's own items are dropped afterwards.
+     */
+    private List<Long> suggest(Request request) {
+        List<Long> candidates = itemSearchIndex.match(request.getDescription(), suggestionsSize * 2);
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        Map<Long, Item> items = itemRepository.findByIdIn(candidates)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return candidates.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .filter(item -> item.getOwner().getId() != request.getOwnerId())
+                .limit(suggestionsSize)
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Loads the items answering all the requests with one query and keeps the order of the requests.
+     */
+    private static List<RequestsDto> withItems(Streamable<Request> requests,
+                                               Function<Collection<Long>, Streamable<Item>> itemLoader) {
+        List<RequestsDto> answer = requests.map(mapper::requestToRequestDto).toList();
+        if (answer.isEmpty()) {
+            return answer;
+        }
+        Map<Long, List<ItemDto>> items = toItemDtos(itemLoader.apply(answer.stream()
+                .map(RequestsDto::getId)
+                .collect(Collectors.toList())))
+                .stream()
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+        answer.forEach(r -> r.setItems(items.getOrDefault(r.getId(), List.of())));
+        return answer;
+    }
+
+    private static List<ItemDto> toItemDtos(Streamable<Item> items) {
+        return items.stream()
+                .map(itemMapper::itemToItemDto)
+                .collect(Collectors.toList());
+    }
+
     private void checkUser(long ownerId) {
-        if (userRepository.existsById(ownerId).equals(false)) {
+        if (!userPresenceCache.exists(ownerId)) {
             throw new ObjectNotFoundException("userId = " + ownerId + " not found");
         }
     }
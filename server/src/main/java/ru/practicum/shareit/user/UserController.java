@@ -2,6 +2,10 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -9,10 +13,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @Slf4j
@@ -20,14 +29,54 @@ import java.util.List;
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
 public class UserController {
+    private static final int FLUSH_EVERY = 100;
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public List<UserDto> getAllUsers() {
-        log.debug("+UserController - getAllUsers");
-        List<UserDto> users =  userService.getAllUsers();
-        log.debug("-UserController - getAllUsers: {}", users);
-        return users;
+    public ResponseEntity<List<UserDto>> getUsers(@RequestParam(name = "size", defaultValue = "100") int size,
+                                                  @RequestParam(name = "cursor", required = false) String cursor) {
+        log.debug("+UserController - getUsers: size = {}, cursor = {}", size, cursor);
+        CursorPage<UserDto> users = userService.getUsers(cursor, size);
+        log.debug("-UserController - getUsers: {}", users);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (users.getNextCursor() != null) {
+            response.header(CursorPage.NEXT_CURSOR_HEADER, users.getNextCursor());
+        }
+        return response.body(users.getItems());
+    }
+
+    /**
+     * All users as one JSON object per line, written and flushed while they are read from the database.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        log.debug("+UserController - streamUsers");
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out)) {
+                int[] written = {0};
+                userService.forEachUser(user -> {
+                    try {
+                        writer.write(user);
+                        if (++written[0] % FLUSH_EVERY == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                // the separator only goes between users, the last line still needs its end
+                writer.flush();
+                if (written[0] > 0) {
+                    out.write('\n');
+                }
+                log.debug("-UserController - streamUsers: {} users", written[0]);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{userId}")
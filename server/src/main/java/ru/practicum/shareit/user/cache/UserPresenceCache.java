@@ -0,0 +1,62 @@
+package ru.practicum.shareit.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Whether a user id exists, for the checks of the X-Sharer-User-Id header that start most requests. Unknown ids
+ * are cached as well, so they are only evicted once the transaction adding or deleting the user has committed;
+ * entries also expire, in case users are changed around this service.
+ */
+@Slf4j
+@Component
+public class UserPresenceCache {
+    private final UserRepository userRepository;
+
+    private final Cache<Long, Boolean> presence;
+
+    public UserPresenceCache(UserRepository userRepository,
+                             @Value("${shareit.cache.user-presence.maximum-size}") long maximumSize,
+                             @Value("${shareit.cache.user-presence.expire-after-write}") Duration expireAfterWrite,
+                             MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        presence = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, presence, "userPresence");
+    }
+
+    public boolean exists(long userId) {
+        return presence.get(userId, userRepository::existsById);
+    }
+
+    public void evictAfterCommit(long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    private void evict(long userId) {
+        log.debug("UserPresenceCache - evict: userId = {}", userId);
+        presence.invalidate(userId);
+    }
+}
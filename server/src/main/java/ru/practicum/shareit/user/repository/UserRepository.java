@@ -1,11 +1,21 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.repository.Repository;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Transactional
 @EnableJpaRepositories
@@ -14,7 +24,22 @@ public interface UserRepository extends Repository<User, Long> {
 
     Optional<User> findById(Long userId);
 
-    Iterable<User> findAll();
+    /**
+     * A lazy reference for associations; the caller has to know that the user exists.
+     */
+    User getReferenceById(Long userId);
+
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) from User u "
+            + "where u.id > :lastId order by u.id asc")
+    Slice<UserDto> findByIdGreaterThan(@Param("lastId") long lastId, Pageable pageable);
+
+    /**
+     * All users as DTOs read through a cursor, so neither the result set nor the persistence context holds
+     * more than one fetch of rows. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.id, u.name, u.email) from User u order by u.id asc")
+    Stream<UserDto> streamAll();
 
     User deleteById(Long id);
 
@@ -1,13 +1,19 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.pagination.CursorPage;
 import ru.practicum.shareit.user.dto.UserDto;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
     UserDto addUser(UserDto userDto);
 
-    List<UserDto> getAllUsers();
+    CursorPage<UserDto> getUsers(String cursor, int size);
+
+    /**
+     * Passes every user to {@code action} in id order without loading them all at once.
+     */
+    void forEachUser(Consumer<UserDto> action);
 
     UserDto updateUser(UserDto userDto, long userId);
 
@@ -2,9 +2,16 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.stats.BookingCounters;
 import ru.practicum.shareit.exception.ObjectNotFoundException;
 import ru.practicum.shareit.exception.ObjectsDbException;
+import ru.practicum.shareit.pagination.CursorCodec;
+import ru.practicum.shareit.pagination.CursorPage;
+import ru.practicum.shareit.user.cache.UserPresenceCache;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -12,9 +19,8 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
-
-import static java.util.stream.Collectors.toList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -22,25 +28,42 @@ import static java.util.stream.Collectors.toList;
 public class UserServiceImpl implements UserService {
     private static final UserMapper mapper = UserMapper.INSTANCE;
     private final UserRepository userRepository;
+    private final BookingCounters bookingCounters;
+    private final UserPresenceCache userPresenceCache;
 
     @Override
+    @Transactional
     public UserDto addUser(UserDto userDto) {
         log.debug("+UserServiceImpl - addUser: {}", userDto);
         UserDto user = mapper.userToUserDto(userRepository.save(mapper.userDtoToUser(userDto)));
+        bookingCounters.create(user.getId());
+        userPresenceCache.evictAfterCommit(user.getId());
         log.debug("-UserServiceImpl - addUser: {}", user);
         return user;
     }
 
     @Override
-    public List<UserDto> getAllUsers() {
-        log.debug("+UserServiceImpl - getAllUsers");
-        List<UserDto> users = StreamSupport.stream(userRepository.findAll().spliterator(), false)
-                .map(mapper::userToUserDto)
-                .collect(toList());
-        log.debug("-UserServiceImpl - getAllUsers: {}", users);
+    public CursorPage<UserDto> getUsers(String cursor, int size) {
+        log.debug("+UserServiceImpl - getUsers: cursor = {}, size = {}", cursor, size);
+        long lastId = cursor == null ? 0 : CursorCodec.decode(cursor);
+        Slice<UserDto> page = userRepository.findByIdGreaterThan(lastId, PageRequest.of(0, size));
+        List<UserDto> items = page.getContent();
+        String nextCursor = page.hasNext() ? CursorCodec.encode(items.get(items.size() - 1).getId()) : null;
+        CursorPage<UserDto> users = new CursorPage<>(items, nextCursor);
+        log.debug("-UserServiceImpl - getUsers: {}", users);
         return users;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachUser(Consumer<UserDto> action) {
+        log.debug("+UserServiceImpl - forEachUser");
+        try (Stream<UserDto> users = userRepository.streamAll()) {
+            users.forEach(action);
+        }
+        log.debug("-UserServiceImpl - forEachUser");
+    }
+
     @Override
     public UserDto updateUser(UserDto userDto, long userId) {
         log.debug("+UserServiceImpl - addUser: {}. userId = {}", userDto, userId);
@@ -68,9 +91,12 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDto deleteUser(long userId) {
         log.debug("+UserServiceImpl - deleteUser: userId = {}", userId);
         UserDto user = mapper.userToUserDto(userRepository.deleteById(userId));
+        bookingCounters.delete(userId);
+        userPresenceCache.evictAfterCommit(userId);
         log.debug("-UserServiceImpl - deleteUser: {}", user);
         return user;
     }
@@ -1,7 +1,18 @@
-DROP TABLE if EXISTS users, items, bookings, comments, requests CASCADE;
+DROP TABLE if EXISTS users, items, bookings, bookings_archive, booking_counters, comments, requests, request_suggestions CASCADE;
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+DROP SEQUENCE IF EXISTS requests_seq;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
@@ -9,7 +20,7 @@ CREATE TABLE IF NOT EXISTS users (
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     name VARCHAR(255) NOT NULL,
     description VARCHAR(500) NOT NULL,
     available boolean NOT NULL,
@@ -21,17 +32,41 @@ CREATE TABLE IF NOT EXISTS items (
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     start_time TIMESTAMP WITHOUT TIME ZONE,
     end_time TIMESTAMP WITHOUT TIME ZONE,
     item INTEGER NOT NULL,
     booker INTEGER NOT NULL,
     status VARCHAR(255) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT pk_booking PRIMARY KEY (id)
 );
 
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    start_time TIMESTAMP WITHOUT TIME ZONE,
+    end_time TIMESTAMP WITHOUT TIME ZONE,
+    item INTEGER NOT NULL,
+    booker INTEGER NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_booking_archive PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_archive_booker ON bookings_archive (booker, id);
+CREATE INDEX IF NOT EXISTS idx_booking_archive_item ON bookings_archive (item, id);
+CREATE INDEX IF NOT EXISTS idx_booking_archive_item_start ON bookings_archive (item, start_time);
+
+CREATE TABLE IF NOT EXISTS booking_counters (
+    user_id BIGINT NOT NULL,
+    role VARCHAR(16) NOT NULL,
+    status VARCHAR(16) NOT NULL,
+    total BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_booking_counter PRIMARY KEY (user_id, role, status)
+);
+
 CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     text VARCHAR(500),
     item INTEGER NOT NULL,
     author_name VARCHAR(255) NOT NULL,
@@ -40,13 +75,24 @@ CREATE TABLE IF NOT EXISTS comments (
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     description VARCHAR(500) NOT NULL,
     created TIMESTAMP WITHOUT TIME ZONE,
     owner_id INTEGER NOT NULL,
     CONSTRAINT pk_requests PRIMARY KEY (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_request_owner ON requests (owner_id, created);
+CREATE INDEX IF NOT EXISTS idx_request_created ON requests (created, id);
+CREATE INDEX IF NOT EXISTS idx_item_request ON items (request_id, owner);
+
+CREATE TABLE IF NOT EXISTS request_suggestions (
+    request_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    item_rank INTEGER NOT NULL,
+    CONSTRAINT pk_request_suggestion PRIMARY KEY (request_id, item_id)
+);
+
 ALTER TABLE items ADD CONSTRAINT fk_item_owner FOREIGN KEY (owner) REFERENCES users(id);
 ALTER TABLE items ADD CONSTRAINT fk_item_next_booking FOREIGN KEY (next_booking) REFERENCES bookings(id);
 ALTER TABLE items ADD CONSTRAINT fk_item_last_booking FOREIGN KEY (last_booking) REFERENCES bookings(id);
@@ -54,4 +100,10 @@ ALTER TABLE items ADD CONSTRAINT fk_item_last_booking FOREIGN KEY (last_booking)
 ALTER TABLE bookings ADD CONSTRAINT fk_booking_item FOREIGN KEY (item) REFERENCES items(id);
 ALTER TABLE bookings ADD CONSTRAINT fk_booking_booker FOREIGN KEY (booker) REFERENCES users(id);
 
-ALTER TABLE comments ADD CONSTRAINT fk_comment_item FOREIGN KEY (item) REFERENCES items(id);
\ No newline at end of file
+ALTER TABLE bookings_archive ADD CONSTRAINT fk_booking_archive_item FOREIGN KEY (item) REFERENCES items(id);
+ALTER TABLE bookings_archive ADD CONSTRAINT fk_booking_archive_booker FOREIGN KEY (booker) REFERENCES users(id);
+
+ALTER TABLE comments ADD CONSTRAINT fk_comment_item FOREIGN KEY (item) REFERENCES items(id);
+
+ALTER TABLE request_suggestions ADD CONSTRAINT fk_request_suggestion_request FOREIGN KEY (request_id) REFERENCES requests(id);
+ALTER TABLE request_suggestions ADD CONSTRAINT fk_request_suggestion_item FOREIGN KEY (item_id) REFERENCES items(id);
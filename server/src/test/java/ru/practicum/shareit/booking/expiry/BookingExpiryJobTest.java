@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.expiry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.CannotCreateTransactionException;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingExpiryJobTest {
+    private final BookingExpiryIndex bookingExpiryIndex = mock(BookingExpiryIndex.class);
+    private final BookingService bookingService = mock(BookingService.class);
+    private final BookingExpiryJob job = new BookingExpiryJob(bookingExpiryIndex, bookingService);
+
+    @Test
+    void rejectExpiredRetriesFailedBatchAndGoesOn() {
+        List<Long> expired = LongStream.rangeClosed(1, 120).boxed().collect(Collectors.toList());
+        when(bookingExpiryIndex.pollExpired()).thenReturn(expired);
+        when(bookingService.rejectExpired(expired.subList(0, 50)))
+                .thenThrow(new CannotCreateTransactionException("no connection"));
+
+        job.rejectExpired();
+
+        verify(bookingExpiryIndex).retry(expired.subList(0, 50));
+        verify(bookingService).rejectExpired(expired.subList(50, 100));
+        verify(bookingService).rejectExpired(expired.subList(100, 120));
+    }
+
+    @Test
+    void rejectExpiredDoesNothingWithoutExpiredBookings() {
+        when(bookingExpiryIndex.pollExpired()).thenReturn(List.of());
+
+        job.rejectExpired();
+
+        verify(bookingService, never()).rejectExpired(anyList());
+    }
+}
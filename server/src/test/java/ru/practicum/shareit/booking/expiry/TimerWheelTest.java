@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.expiry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+    private static final long MAX_SPAN = (1L << 30) - 1;
+
+    @Test
+    void deadlineAtCurrentTickExpiresOnNextAdvance() {
+        TimerWheel wheel = new TimerWheel(100);
+        wheel.schedule(1, 100);
+        wheel.schedule(2, 101);
+
+        assertEquals(List.of(1L), wheel.advance(100));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(2L), wheel.advance(101));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deadlineOnLevelBoundaryExpiresExactlyThen() {
+        for (int level = 1; level < 5; level++) {
+            long boundary = 1L << (6 * level);
+            for (long start : new long[]{0, 1, boundary - 1}) {
+                TimerWheel wheel = new TimerWheel(start);
+                wheel.schedule(1, boundary);
+                wheel.schedule(2, 3 * boundary);
+
+                assertEquals(List.of(), wheel.advance(boundary - 1), "level " + level + ", start " + start);
+                assertEquals(List.of(1L), wheel.advance(boundary), "level " + level + ", start " + start);
+                assertEquals(List.of(), wheel.advance(3 * boundary - 1), "level " + level + ", start " + start);
+                assertEquals(List.of(2L), wheel.advance(3 * boundary), "level " + level + ", start " + start);
+            }
+        }
+    }
+
+    @Test
+    void deadlineBeyondMaxSpanIsRescheduledWhenItComesDown() {
+        long start = 5;
+        long deadline = start + MAX_SPAN + 100;
+        TimerWheel wheel = new TimerWheel(start);
+        wheel.schedule(1, deadline);
+
+        assertEquals(List.of(), wheel.advance(start + MAX_SPAN));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(), wheel.advance(deadline - 1));
+        assertEquals(List.of(1L), wheel.advance(deadline));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelRemovesOverdueId() {
+        TimerWheel wheel = new TimerWheel(100);
+        wheel.schedule(1, 50);
+        wheel.cancel(1);
+
+        assertEquals(0, wheel.size());
+        assertEquals(List.of(), wheel.advance(101));
+    }
+
+    @Test
+    void rescheduleMovesOverdueIdBackOntoTheWheel() {
+        TimerWheel wheel = new TimerWheel(100);
+        wheel.schedule(1, Long.MIN_VALUE);
+        wheel.schedule(1, 200);
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(), wheel.advance(199));
+        assertEquals(List.of(1L), wheel.advance(200));
+    }
+
+    @Test
+    void rescheduleMovesPlacedIdIntoOverdue() {
+        TimerWheel wheel = new TimerWheel(100);
+        wheel.schedule(1, 5000);
+        wheel.schedule(1, 100);
+
+        assertEquals(List.of(1L), wheel.advance(100));
+        assertEquals(List.of(), wheel.advance(6000));
+    }
+
+    @Test
+    void advanceOverManyTicksReturnsEachIdOnceWhenItsDeadlinePasses() {
+        Random random = new Random(42);
+        long start = 1_000_003;
+        TimerWheel wheel = new TimerWheel(start);
+        Map<Long, Long> deadlines = new HashMap<>();
+        for (long id = 0; id < 5000; id++) {
+            long deadline = start - 10 + (long) (random.nextDouble() * random.nextDouble() * 3_000_000);
+            wheel.schedule(id, deadline);
+            deadlines.put(id, deadline);
+        }
+        for (long id = 0; id < 5000; id += 7) {
+            wheel.cancel(id);
+            deadlines.remove(id);
+        }
+
+        long tick = start;
+        while (!deadlines.isEmpty()) {
+            tick += 1 + random.nextInt(5000);
+            List<Long> expired = wheel.advance(tick);
+            List<Long> expected = new ArrayList<>();
+            for (Map.Entry<Long, Long> entry : deadlines.entrySet()) {
+                if (entry.getValue() <= tick) {
+                    expected.add(entry.getKey());
+                }
+            }
+            expected.forEach(deadlines::remove);
+
+            assertEquals(expected.size(), expired.size(), "tick " + tick);
+            assertTrue(expired.containsAll(expected), "tick " + tick);
+            assertEquals(deadlines.size(), wheel.size(), "tick " + tick);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.booking.overlap;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalTreeTest {
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final IntervalTree tree = new IntervalTree();
+
+    @Test
+    void findOverlapTreatsIntervalsAsHalfOpen() {
+        tree.put(1, at(10), at(20));
+
+        assertNull(tree.findOverlap(at(0), at(10), 0));
+        assertNull(tree.findOverlap(at(20), at(30), 0));
+        assertEquals(1L, tree.findOverlap(at(0), at(11), 0));
+        assertEquals(1L, tree.findOverlap(at(19), at(30), 0));
+        assertEquals(1L, tree.findOverlap(at(12), at(15), 0));
+        assertEquals(1L, tree.findOverlap(at(5), at(25), 0));
+    }
+
+    @Test
+    void findOverlapSkipsExcludedId() {
+        tree.put(1, at(10), at(20));
+
+        assertNull(tree.findOverlap(at(12), at(15), 1));
+
+        tree.put(2, at(0), at(100));
+
+        assertEquals(2L, tree.findOverlap(at(12), at(15), 1));
+        assertEquals(1L, tree.findOverlap(at(12), at(15), 2));
+    }
+
+    @Test
+    void findOverlapFindsLongIntervalStartingEarly() {
+        tree.put(1, at(0), at(1000));
+        for (long id = 2; id < 100; id++) {
+            tree.put(id, at(id * 2), at(id * 2 + 1));
+        }
+
+        assertEquals(1L, tree.findOverlap(at(500), at(600), 0));
+        assertEquals(1L, tree.findOverlap(at(999), at(2000), 0));
+        assertNull(tree.findOverlap(at(1000), at(2000), 0));
+    }
+
+    @Test
+    void putReplacesIntervalOfSameId() {
+        tree.put(1, at(10), at(20));
+        tree.put(1, at(30), at(40));
+
+        assertEquals(1, tree.size());
+        assertNull(tree.findOverlap(at(10), at(20), 0));
+        assertEquals(1L, tree.findOverlap(at(35), at(36), 0));
+    }
+
+    @Test
+    void removeDropsIntervalAndIgnoresUnknownId() {
+        tree.put(1, at(10), at(20));
+        tree.put(2, at(15), at(25));
+        tree.remove(1);
+        tree.remove(42);
+
+        assertEquals(1, tree.size());
+        assertNull(tree.findOverlap(at(10), at(15), 0));
+        assertEquals(2L, tree.findOverlap(at(10), at(16), 0));
+    }
+
+    @Test
+    void removeEndedBeforeDropsOnlyLeadingEndedIntervals() {
+        tree.put(1, at(0), at(10));
+        tree.put(2, at(5), at(20));
+        tree.put(3, at(6), at(8));
+        tree.put(4, at(30), at(40));
+
+        tree.removeEndedBefore(at(10));
+
+        assertEquals(3, tree.size());
+        assertNull(tree.findOverlap(at(0), at(5), 0));
+
+        tree.removeEndedBefore(at(20));
+
+        assertEquals(1, tree.size());
+        assertNull(tree.findOverlap(at(0), at(30), 0));
+        assertEquals(4L, tree.findOverlap(at(0), at(31), 0));
+    }
+
+    @Test
+    void randomPutsAndRemovesMatchBruteForce() {
+        Random random = new Random(7);
+        Map<Long, long[]> intervals = new HashMap<>();
+        for (int step = 0; step < 20_000; step++) {
+            long id = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                tree.remove(id);
+                intervals.remove(id);
+            } else {
+                long start = random.nextInt(10_000);
+                long end = start + 1 + random.nextInt(random.nextInt(10) == 0 ? 2_000 : 50);
+                tree.put(id, at(start), at(end));
+                intervals.put(id, new long[]{start, end});
+            }
+            assertEquals(intervals.size(), tree.size());
+
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(100);
+            long excludedId = random.nextInt(500);
+            Long found = tree.findOverlap(at(start), at(end), excludedId);
+            boolean expected = intervals.entrySet().stream()
+                    .anyMatch(e -> e.getKey() != excludedId && e.getValue()[0] < end && start < e.getValue()[1]);
+            if (expected) {
+                assertNotNull(found, "step " + step);
+                assertNotEquals(excludedId, found);
+                long[] interval = intervals.get(found);
+                assertTrue(interval[0] < end && start < interval[1], "step " + step);
+            } else {
+                assertNull(found, "step " + step);
+            }
+        }
+        intervals.keySet().forEach(tree::remove);
+        assertEquals(0, tree.size());
+        assertNull(tree.findOverlap(at(0), at(20_000), 0));
+    }
+
+    private static LocalDateTime at(long minutes) {
+        return EPOCH.plusMinutes(minutes);
+    }
+}
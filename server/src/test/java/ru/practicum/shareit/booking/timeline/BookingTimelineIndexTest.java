@@ -0,0 +1,111 @@
+package ru.practicum.shareit.booking.timeline;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.util.Streamable;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.LastOrNextBooking;
+import ru.practicum.shareit.booking.repository.BookingArchiveRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static ru.practicum.shareit.booking.BookingStatus.APPROVED;
+import static ru.practicum.shareit.booking.BookingStatus.REJECTED;
+
+class BookingTimelineIndexTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+
+    private final BookingArchiveRepository bookingArchiveRepository = mock(BookingArchiveRepository.class);
+
+    private final BookingTimelineIndex index = new BookingTimelineIndex(bookingRepository, bookingArchiveRepository,
+            2, new SimpleMeterRegistry());
+
+    @Test
+    void lastAndNextBookingComeFromOneLoad() {
+        mockLive(entry(1, NOW.minusDays(2)), entry(2, NOW.minusDays(1)), entry(3, NOW.plusDays(1)));
+
+        assertEquals(2L, index.getLastBooking(7, NOW).getId());
+        assertEquals(3L, index.getNextBooking(7, NOW).getId());
+        verify(bookingRepository, times(1)).findByItemIdInAndStatusOrderByStartAsc(anyCollection(), any());
+    }
+
+    @Test
+    void savedBookingUpdatesLoadedTimeline() {
+        mockLive(entry(1, NOW.plusDays(2)));
+        index.preload(List.of(7L));
+
+        index.onBookingSaved(booking(2, NOW.plusDays(1), APPROVED));
+        assertEquals(2L, index.getNextBooking(7, NOW).getId());
+
+        index.onBookingSaved(booking(2, NOW.plusDays(1), REJECTED));
+        assertEquals(1L, index.getNextBooking(7, NOW).getId());
+        verify(bookingRepository, times(1)).findByItemIdInAndStatusOrderByStartAsc(anyCollection(), any());
+    }
+
+    @Test
+    void timelineChangedWhileLoadingIsNotKept() {
+        when(bookingRepository.findByItemIdInAndStatusOrderByStartAsc(anyCollection(), any()))
+                .thenAnswer(invocation -> {
+                    index.onBookingSaved(booking(2, NOW.plusDays(1), APPROVED));
+                    return Streamable.of(entry(1, NOW.plusDays(2)));
+                })
+                .thenReturn(Streamable.of(entry(1, NOW.plusDays(2)), entry(2, NOW.plusDays(1))));
+        mockArchive();
+
+        assertEquals(1L, index.getNextBooking(7, NOW).getId());
+        assertEquals(2L, index.getNextBooking(7, NOW).getId());
+    }
+
+    @Test
+    void itemWithoutBookingsHasEmptyTimeline() {
+        mockLive();
+
+        assertNull(index.getLastBooking(7, NOW));
+        assertNull(index.getNextBooking(7, NOW));
+    }
+
+    private void mockLive(LastOrNextBooking... entries) {
+        when(bookingRepository.findByItemIdInAndStatusOrderByStartAsc(anyCollection(), any()))
+                .thenReturn(Streamable.of(entries));
+        mockArchive();
+    }
+
+    private void mockArchive() {
+        when(bookingArchiveRepository.findLatestByItemIdInAndStatus(anyCollection(), any(), any()))
+                .thenReturn(Streamable.empty());
+    }
+
+    private static LastOrNextBooking entry(long id, LocalDateTime start) {
+        return new LastOrNextBooking(id, start, start.plusHours(1), 1, APPROVED, 7);
+    }
+
+    private static Booking booking(long id, LocalDateTime start, BookingStatus status) {
+        Item item = new Item();
+        item.setId(7);
+        User booker = new User();
+        booker.setId(1);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(1));
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        return booking;
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemNameTrieTest {
+    private final ItemNameTrie trie = new ItemNameTrie();
+
+    @Test
+    void insertSplitsSharedPrefix() {
+        trie.index(item(1L, "Дрель", true));
+        trie.index(item(2L, "Дрова", true));
+        trie.index(item(3L, "Др", true));
+
+        assertEquals(List.of("Др", "Дрель", "Дрова"), trie.suggest("др", 10));
+        assertEquals(List.of("Дрель"), trie.suggest("дре", 10));
+        assertEquals(List.of("Дрова"), trie.suggest("ДРО", 10));
+        assertEquals(List.of(), trie.suggest("дрю", 10));
+        assertEquals(List.of(), trie.suggest("дрелька", 10));
+    }
+
+    @Test
+    void removeMergesLeftoverNode() {
+        trie.index(item(1L, "Дрель", true));
+        trie.index(item(2L, "Дрова", true));
+        trie.index(item(2L, "Дрова", false));
+
+        assertEquals(List.of("Дрель"), trie.suggest("д", 10));
+        assertEquals(List.of("Дрель"), trie.suggest("дрел", 10));
+        assertEquals(List.of(), trie.suggest("дро", 10));
+
+        trie.index(item(3L, "Дрожь", true));
+
+        assertEquals(List.of("Дрель", "Дрожь"), trie.suggest("др", 10));
+        assertEquals(List.of("Дрожь"), trie.suggest("дро", 10));
+    }
+
+    @Test
+    void renameMovesItemToNewName() {
+        trie.index(item(1L, "Дрель", true));
+        trie.index(item(1L, "Пила", true));
+
+        assertEquals(List.of(), trie.suggest("дре", 10));
+        assertEquals(List.of("Пила"), trie.suggest("пи", 10));
+    }
+
+    @Test
+    void withdrawnItemIsNotSuggested() {
+        trie.index(item(1L, "Дрель", true));
+        trie.index(item(2L, "Дрель", true));
+        trie.index(item(1L, "Дрель", false));
+
+        assertEquals(List.of("Дрель"), trie.suggest("дре", 10));
+
+        trie.index(item(2L, "Дрель", false));
+
+        assertEquals(List.of(), trie.suggest("дре", 10));
+        assertEquals(List.of(), trie.suggest("", 10));
+    }
+
+    @Test
+    void suggestRanksByFrequencyThenName() {
+        trie.index(item(1L, "Дрезина", true));
+        trie.index(item(2L, "Дрель ударная", true));
+        trie.index(item(3L, "Дрель ударная", true));
+        trie.index(item(4L, "Дрель", true));
+        trie.index(item(5L, "Дрель", true));
+        trie.index(item(6L, "Дрель", true));
+        trie.index(item(7L, "Дренаж", true));
+
+        assertEquals(List.of("Дрель", "Дрель ударная", "Дрезина", "Дренаж"), trie.suggest("дре", 10));
+        assertEquals(List.of("Дрель", "Дрель ударная"), trie.suggest("дре", 2));
+
+        trie.index(item(4L, "Дрель", false));
+        trie.index(item(5L, "Дрель", false));
+
+        assertEquals(List.of("Дрель ударная", "Дрель"), trie.suggest("дрель", 10));
+    }
+
+    private static Item item(long id, String name, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription("");
+        item.setAvailable(available);
+        return item;
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemNgramIndexTest {
+    private final ItemNgramIndex index = new ItemNgramIndex();
+
+    @Test
+    void searchFindsWordWithSimilarityExactlyAtThreshold() {
+        index.index(item(1L, "abc", true));
+
+        // 4 of the 12 query grams are shared with the 4 grams of "abc": 2·4 / (12 + 4) = 0.5
+        assertEquals(List.of(1L), index.search("abcdefghibc", 0, 10));
+    }
+
+    @Test
+    void searchSkipsWordBelowThreshold() {
+        index.index(item(1L, "abc", true));
+
+        assertEquals(List.of(), index.search("abcdefghijkl", 0, 10));
+    }
+
+    @Test
+    void searchToleratesTyposAndTransliteration() {
+        index.index(item(1L, "Дрель", true));
+        index.index(item(2L, "Отвёртка", true));
+
+        assertEquals(List.of(1L), index.search("drel", 0, 10));
+        assertEquals(List.of(1L), index.search("дрелл", 0, 10));
+    }
+
+    @Test
+    void searchSkipsUnavailableItems() {
+        index.index(item(1L, "Дрель", true));
+        index.index(item(1L, "Дрель", false));
+
+        assertEquals(List.of(), index.search("дрель", 0, 10));
+    }
+
+    private static Item item(long id, String name, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription("");
+        item.setAvailable(available);
+        return item;
+    }
+}